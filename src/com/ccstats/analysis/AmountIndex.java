@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import java.util.function.IntToLongFunction;
+import java.util.function.LongPredicate;
+
+
+/**
+ * Secondary index of a pool sorted by amount. Every entry is the index of a transaction in the pool, and
+ * the entries are ordered by the amount of their transaction, then by the index itself. Amount ranges,
+ * ranks and extremes are found by binary search over the entries. The index is a snapshot of the pool: it is
+ * built on demand, and dropped by the pool once the pool changes.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+class AmountIndex {
+
+    private final IntToLongFunction amounts;
+    private final int[] entries;
+    private final int size;
+
+
+    /**
+     * Builds the index of a pool.
+     *
+     * @param size    The number of transactions in the pool.
+     * @param amounts The amount in cents of the transaction at an index of the pool.
+     */
+    AmountIndex(int size, IntToLongFunction amounts) {
+        this.amounts = amounts;
+        this.size = size;
+        this.entries = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            entries[i] = i;
+        }
+
+        // the entries start out in index order and the sort is stable, which settles the ties by index.
+        sort(entries, new int[size], 0, size);
+    }
+
+
+    /**
+     *
+     * @return The number of entries.
+     */
+    int size() {
+        return size;
+    }
+
+
+    /**
+     *
+     * @param rank The rank of the entry, from the smallest amount up.
+     *
+     * @return The index in the pool of the transaction with the rank.
+     */
+    int get(int rank) {
+        return entries[rank];
+    }
+
+
+    /**
+     * Binary searches the entries for the first one whose amount passes the test. The test must hold for
+     * every amount past the first that passes it.
+     *
+     * @param test The monotonic test on an amount in cents.
+     *
+     * @return The rank of the first passing entry, or the number of entries if none pass.
+     */
+    int search(LongPredicate test) {
+        int low = 0, high = size;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (test.test(amounts.applyAsLong(entries[middle]))) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+
+        return low;
+    }
+
+
+    /**
+     * Stable merge sort of the entries [from, to) by the amounts of their transactions.
+     */
+    private void sort(int[] entries, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        sort(entries, buffer, from, middle);
+        sort(entries, buffer, middle, to);
+
+        if (amounts.applyAsLong(entries[middle - 1]) <= amounts.applyAsLong(entries[middle])) {
+            return;
+        }
+
+        System.arraycopy(entries, from, buffer, from, to - from);
+        int i = from, j = middle, k = from;
+        while (i < middle && j < to) {
+            entries[k++] = amounts.applyAsLong(buffer[j]) < amounts.applyAsLong(buffer[i]) ? buffer[j++] : buffer[i++];
+        }
+        while (i < middle) {
+            entries[k++] = buffer[i++];
+        }
+        while (j < to) {
+            entries[k++] = buffer[j++];
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import com.ccstats.data.Transaction;
+
+
+/**
+ * Tracks the most common transactions of a pool in fixed memory, with the Space-Saving algorithm of
+ * Metwally, Agrawal and El Abbadi. At most capacity distinct transactions are tracked; once full, a
+ * transaction that is not tracked takes over the entry of the least common one, along with its
+ * frequency plus one.
+ *
+ * A tracked frequency never underestimates the occurrences of its transaction, and overestimates them by
+ * at most the largest frequency evicted so far. Without removals, that is at most the number of
+ * occurrences divided by the capacity, and any transaction occurring more often than that is always
+ * tracked. Removals only lower the frequencies of tracked transactions.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+class ApproximateFrequencies extends TransactionFrequencies {
+
+    private final int capacity;
+    private int errorBound;
+
+
+    /**
+     * Constructor for the ApproximateFrequencies class.
+     *
+     * @param capacity The number of distinct transactions tracked at most.
+     */
+    ApproximateFrequencies(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+
+        this.capacity = capacity;
+    }
+
+
+    /**
+     * Records one more occurrence of the transaction, evicting the least common transaction if the
+     * transaction is not tracked yet and every entry is taken.
+     *
+     * @param transaction The transaction.
+     */
+    @Override
+    void increment(Transaction transaction) {
+        if (size() == capacity && getFrequency(transaction) == 0) {
+            int evicted = removeLeastCommon().getFrequency();
+
+            errorBound = Math.max(errorBound, evicted);
+            put(transaction, evicted + 1);
+            return;
+        }
+
+        super.increment(transaction);
+    }
+
+
+    /**
+     *
+     * @return The largest frequency evicted so far, or 0 while every occurrence is still counted.
+     */
+    @Override
+    int getErrorBound() {
+        return errorBound;
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+
+/**
+ * Materialized daily, weekly and monthly rollups of a set of transactions. Every calendar bucket holding
+ * transactions has its own running TransactionStatistics, updated as transactions are added and removed.
+ *
+ * The statistics of a range of dates are merged from the fewest buckets covering it: the whole months of
+ * the range, then the whole weeks of the partial months, then the days left over at the edges. A range
+ * therefore costs a few dozen buckets per partial month at most, whatever the number of transactions.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public class CalendarRollups {
+
+    private final TreeMap<Integer, TransactionStatistics> days = new TreeMap<>();
+    private final TreeMap<Integer, TransactionStatistics> weeks = new TreeMap<>();
+    private final TreeMap<Integer, TransactionStatistics> months = new TreeMap<>();
+
+
+    /**
+     * Accounts for a transaction in the buckets of its day, week and month.
+     *
+     * @param day   The epoch day of the transaction.
+     * @param cents The amount of the transaction in cents.
+     */
+    public void add(int day, long cents) {
+        days.computeIfAbsent(GroupKey.DAY.bucket(day), b -> new TransactionStatistics()).add(cents);
+        weeks.computeIfAbsent(GroupKey.WEEK.bucket(day), b -> new TransactionStatistics()).add(cents);
+        months.computeIfAbsent(GroupKey.MONTH.bucket(day), b -> new TransactionStatistics()).add(cents);
+    }
+
+
+    /**
+     * Stops accounting for a transaction that was previously added. Buckets left empty are dropped.
+     *
+     * @param day   The epoch day of the transaction.
+     * @param cents The amount of the transaction in cents.
+     */
+    public void remove(int day, long cents) {
+        remove(days, GroupKey.DAY.bucket(day), cents);
+        remove(weeks, GroupKey.WEEK.bucket(day), cents);
+        remove(months, GroupKey.MONTH.bucket(day), cents);
+    }
+
+
+    /**
+     * Forgets every transaction.
+     */
+    public void clear() {
+        days.clear();
+        weeks.clear();
+        months.clear();
+    }
+
+
+    /**
+     * Merges the statistics of the buckets covering the dates from date1 up till date2 (inclusive).
+     *
+     * @param date1 The beginning date.
+     * @param date2 The (inclusive) ending date.
+     *
+     * @return The TransactionStatistics of the transactions between the dates.
+     */
+    public TransactionStatistics getStatistics(LocalDate date1, LocalDate date2) {
+        TransactionStatistics statistics = new TransactionStatistics();
+        int day = (int) date1.toEpochDay(), last = (int) date2.toEpochDay();
+
+        while (day <= last) {
+            int month = GroupKey.MONTH.bucket(day);
+            int monthStart = start(GroupKey.MONTH, month), monthEnd = start(GroupKey.MONTH, month + 1);
+
+            if (day == monthStart && monthEnd - 1 <= last) {
+                merge(statistics, months, month);
+                day = monthEnd;
+                continue;
+            }
+
+            // weeks are only used up to the end of the month, so the range lines up with the next whole month.
+            int week = GroupKey.WEEK.bucket(day);
+            if (day == start(GroupKey.WEEK, week) && day + 7 <= Math.min(last + 1, monthEnd)) {
+                merge(statistics, weeks, week);
+                day += 7;
+                continue;
+            }
+
+            merge(statistics, days, day);
+            day++;
+        }
+
+        return statistics;
+    }
+
+
+    /**
+     * Acquires the rollup table of a period.
+     *
+     * @param period GroupKey.DAY, GroupKey.WEEK or GroupKey.MONTH.
+     *
+     * @return The copied statistics of every bucket holding transactions, by the first date of the bucket.
+     */
+    public SortedMap<LocalDate, TransactionStatistics> getTable(GroupKey period) {
+        TreeMap<Integer, TransactionStatistics> buckets = period == GroupKey.DAY ? days
+                : period == GroupKey.WEEK ? weeks : period == GroupKey.MONTH ? months : null;
+
+        if (buckets == null) {
+            throw new IllegalArgumentException("Not a calendar period: " + period);
+        }
+
+        SortedMap<LocalDate, TransactionStatistics> table = new TreeMap<>();
+        for (Map.Entry<Integer, TransactionStatistics> bucket : buckets.entrySet()) {
+            table.put(period.toDate(bucket.getKey()), new TransactionStatistics(bucket.getValue()));
+        }
+
+        return table;
+    }
+
+
+    /**
+     * Removes an amount from a bucket, dropping the bucket once it is empty.
+     */
+    private static void remove(TreeMap<Integer, TransactionStatistics> buckets, int bucket, long cents) {
+        TransactionStatistics statistics = buckets.get(bucket);
+        if (statistics == null) {
+            return;
+        }
+
+        statistics.remove(cents);
+        if (statistics.getCount() == 0) {
+            buckets.remove(bucket);
+        }
+    }
+
+
+    /**
+     * Merges the statistics of a bucket, if it holds any transaction.
+     */
+    private static void merge(TransactionStatistics statistics, TreeMap<Integer, TransactionStatistics> buckets,
+                              int bucket) {
+        TransactionStatistics other = buckets.get(bucket);
+        if (other != null) {
+            statistics.merge(other);
+        }
+    }
+
+
+    /**
+     *
+     * @return The epoch day starting the bucket of the period.
+     */
+    private static int start(GroupKey period, int bucket) {
+        return (int) period.toDate(bucket).toEpochDay();
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Cumulative per-day totals of a pool. Every distinct day holding transactions gets an entry, in
+ * ascending order, along with the running count, sum and sum of squares of the amounts up to and
+ * including that day. The totals of any range of days are the difference of two entries, found by
+ * binary search, so no transaction has to be visited to answer them.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+class DailyIndex {
+
+    private int[] days;
+
+    // prefix totals: entry i holds the totals of the days before days[i], so entry 0 is always zero.
+    private long[] counts;
+    private long[] sums;
+    private double[] squares;
+    private int size;
+
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param capacity The number of days the index can hold before growing.
+     */
+    DailyIndex(int capacity) {
+        capacity = Math.max(capacity, 16);
+
+        this.days = new int[capacity];
+        this.counts = new long[capacity + 1];
+        this.sums = new long[capacity + 1];
+        this.squares = new double[capacity + 1];
+    }
+
+
+    /**
+     * Accounts for an amount on the provided day. Amounts must be added in ascending order of days, so
+     * this fails, leaving the index unchanged, if the day comes before the last indexed day.
+     *
+     * @param day   The epoch day of the transaction.
+     * @param cents The amount of the transaction in cents.
+     *
+     * @return True if the amount has been accounted for.
+     */
+    boolean append(int day, long cents) {
+        if (size > 0 && day < days[size - 1]) {
+            return false;
+        }
+
+        if (size == 0 || day != days[size - 1]) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                counts = Arrays.copyOf(counts, size * 2 + 1);
+                sums = Arrays.copyOf(sums, size * 2 + 1);
+                squares = Arrays.copyOf(squares, size * 2 + 1);
+            }
+
+            days[size] = day;
+            counts[size + 1] = counts[size];
+            sums[size + 1] = sums[size];
+            squares[size + 1] = squares[size];
+            size++;
+        }
+
+        double amount = cents / 100.0;
+        counts[size]++;
+        sums[size] += cents;
+        squares[size] += amount * amount;
+
+        return true;
+    }
+
+
+    /**
+     * Binary searches the index for the first day that is not before the provided day.
+     *
+     * @param day The epoch day.
+     *
+     * @return The entry of the first day on or after the day, or the number of days if there is none.
+     */
+    int indexOf(int day) {
+        int low = 0, high = size;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (days[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+
+    /**
+     *
+     * @return The epoch day of the entry.
+     */
+    int day(int entry) {
+        return days[entry];
+    }
+
+
+    /**
+     * Sums the totals of the entries [from, to) into statistics. The extremes of the amounts are not
+     * tracked by the index and are left unknown.
+     *
+     * @param from The first (inclusive) entry.
+     * @param to   The last (exclusive) entry.
+     *
+     * @return The TransactionStatistics of the entries.
+     */
+    TransactionStatistics statistics(int from, int to) {
+        return TransactionStatistics.fromTotals(counts[to] - counts[from], sums[to] - sums[from],
+                squares[to] - squares[from]);
+    }
+}
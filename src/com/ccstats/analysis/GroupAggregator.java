@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import com.ccstats.data.DescriptionDictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Hash aggregation of the rows of a store by a set of keys. The values of the keys of every group are laid
+ * out flat in an int array, and looked up through an open addressing table with linear probing. The
+ * running statistics of every group live in primitive arrays indexed by group, so accounting for a row
+ * allocates nothing once its group exists.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+class GroupAggregator {
+
+    private final GroupKey[] keys;
+    private final int[] key;
+
+    // the dictionary of the rows, which the description ids of the groups refer to.
+    private DescriptionDictionary dictionary;
+
+    // the table maps a hash slot onto 1 + the index of the group, or 0 if the slot is free.
+    private int[] table;
+    private int[] values;
+    private int groups;
+
+    private long[] counts, sums, minimums, maximums;
+    private double[] means, squaredDeviations;
+
+
+    /**
+     * Constructor for the GroupAggregator class.
+     *
+     * @param keys The keys to group the rows by.
+     */
+    GroupAggregator(GroupKey[] keys) {
+        this.keys = keys;
+        this.key = new int[keys.length];
+        this.table = new int[64];
+        this.values = new int[32 * keys.length];
+
+        this.counts = new long[32];
+        this.sums = new long[32];
+        this.minimums = new long[32];
+        this.maximums = new long[32];
+        this.means = new double[32];
+        this.squaredDeviations = new double[32];
+    }
+
+
+    /**
+     * Accounts for a row in its group, creating the group if needed.
+     *
+     * @param store The store holding the row.
+     * @param row   The row index.
+     */
+    void add(TransactionStore store, int row) {
+        dictionary = store.getDictionary();
+        for (int k = 0; k < keys.length; k++) {
+            key[k] = keys[k].of(store, row);
+        }
+
+        int group = find();
+        long cents = store.amount(row);
+        double amount = cents / 100.0;
+        double delta = amount - means[group];
+
+        counts[group]++;
+        sums[group] += cents;
+        means[group] += delta / counts[group];
+        squaredDeviations[group] += delta * (amount - means[group]);
+        minimums[group] = Math.min(minimums[group], cents);
+        maximums[group] = Math.max(maximums[group], cents);
+    }
+
+
+    /**
+     *
+     * @return The groups, in order of their first row.
+     */
+    List<TransactionGroup> getGroups() {
+        List<TransactionGroup> result = new ArrayList<>(groups);
+
+        for (int group = 0; group < groups; group++) {
+            int[] groupValues = Arrays.copyOfRange(values, group * keys.length, (group + 1) * keys.length);
+            TransactionStatistics statistics = TransactionStatistics.of(counts[group], sums[group], means[group],
+                    squaredDeviations[group], minimums[group], maximums[group]);
+
+            result.add(new TransactionGroup(keys, groupValues, statistics, dictionary));
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Looks up the group of the current key, creating it if it does not exist yet.
+     *
+     * @return The index of the group.
+     */
+    private int find() {
+        int mask = table.length - 1;
+
+        for (int slot = hash(key, 0) & mask; ; slot = (slot + 1) & mask) {
+            int group = table[slot] - 1;
+
+            if (group < 0) {
+                group = create();
+                table[slot] = group + 1;
+
+                if (groups * 2 > table.length) {
+                    rehash();
+                }
+
+                return group;
+            }
+
+            if (matches(group)) {
+                return group;
+            }
+        }
+    }
+
+
+    /**
+     * Appends a group holding the current key, with empty statistics.
+     *
+     * @return The index of the group.
+     */
+    private int create() {
+        if (groups == counts.length) {
+            int capacity = groups * 2;
+
+            values = Arrays.copyOf(values, capacity * keys.length);
+            counts = Arrays.copyOf(counts, capacity);
+            sums = Arrays.copyOf(sums, capacity);
+            minimums = Arrays.copyOf(minimums, capacity);
+            maximums = Arrays.copyOf(maximums, capacity);
+            means = Arrays.copyOf(means, capacity);
+            squaredDeviations = Arrays.copyOf(squaredDeviations, capacity);
+        }
+
+        System.arraycopy(key, 0, values, groups * keys.length, keys.length);
+        minimums[groups] = Long.MAX_VALUE;
+        maximums[groups] = Long.MIN_VALUE;
+
+        return groups++;
+    }
+
+
+    /**
+     * Doubles the table, placing every group in its new slot.
+     */
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+
+        for (int group = 0; group < groups; group++) {
+            int slot = hash(values, group * keys.length) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+
+            table[slot] = group + 1;
+        }
+    }
+
+
+    /**
+     *
+     * @return True if the group holds the current key.
+     */
+    private boolean matches(int group) {
+        int offset = group * keys.length;
+
+        for (int k = 0; k < keys.length; k++) {
+            if (values[offset + k] != key[k]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Hashes the values of the key laid out at the offset of the array.
+     */
+    private int hash(int[] array, int offset) {
+        int hash = 1;
+        for (int k = 0; k < keys.length; k++) {
+            hash = hash * 0x9E3779B1 + array[offset + k];
+        }
+
+        return hash ^ (hash >>> 16);
+    }
+}
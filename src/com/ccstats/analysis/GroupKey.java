@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import java.time.LocalDate;
+
+
+/**
+ * The attributes transactions can be grouped by with TransactionPool#groupBy(GroupKey...). Every key
+ * reads its attribute from a row of the store as an int, without creating the Transaction.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public enum GroupKey {
+
+    /**
+     * The description of the transaction, as its id in the DescriptionDictionary of the pool.
+     */
+    DESCRIPTION {
+        @Override
+        int of(TransactionStore store, int row) {
+            return store.description(row);
+        }
+    },
+
+    /**
+     * The date of the transaction, as an epoch day.
+     */
+    DAY {
+        @Override
+        LocalDate toDate(int value) {
+            return LocalDate.ofEpochDay(value);
+        }
+    },
+
+    /**
+     * The ISO week of the transaction, which starts on a Monday, as the number of weeks since the week of
+     * the epoch.
+     */
+    WEEK {
+        @Override
+        int bucket(int day) {
+            // the epoch fell on a Thursday, three days after the Monday starting its week.
+            return Math.floorDiv(day + 3, 7);
+        }
+
+        @Override
+        LocalDate toDate(int value) {
+            return LocalDate.ofEpochDay(value * 7L - 3);
+        }
+    },
+
+    /**
+     * The month of the transaction, as the number of months since year 0.
+     */
+    MONTH {
+        @Override
+        int bucket(int day) {
+            return month(day);
+        }
+
+        @Override
+        LocalDate toDate(int value) {
+            return LocalDate.of(Math.floorDiv(value, 12), Math.floorMod(value, 12) + 1, 1);
+        }
+    },
+
+    /**
+     * The status of the transaction, 1 if it is authorized and 0 if it is posted.
+     */
+    AUTHORIZED {
+        @Override
+        int of(TransactionStore store, int row) {
+            return store.isAuthorized(row) ? 1 : 0;
+        }
+    };
+
+
+    /**
+     * Reads the attribute of the key from a row. Date keys read the bucket of the day of the row.
+     *
+     * @param store The store holding the row.
+     * @param row   The row index.
+     *
+     * @return The value of the attribute.
+     */
+    int of(TransactionStore store, int row) {
+        return bucket(store.day(row));
+    }
+
+
+    /**
+     * Computes the value of a date key for an epoch day, that is the day, week or month holding the day.
+     *
+     * @param day The epoch day.
+     *
+     * @return The value of the attribute; the day itself for DAY, and for keys that are not date keys.
+     */
+    int bucket(int day) {
+        return day;
+    }
+
+
+    /**
+     * Converts a value of a date key to the first date of the period it stands for.
+     *
+     * @param value The value of the attribute.
+     *
+     * @return The first date of the period, or null if the key is not a date key.
+     */
+    LocalDate toDate(int value) {
+        return null;
+    }
+
+
+    /**
+     * Computes the month of an epoch day with the civil calendar algorithm of Howard Hinnant, which
+     * involves no allocation, unlike going through a LocalDate.
+     *
+     * @param day The epoch day.
+     *
+     * @return The number of months since year 0.
+     */
+    private static int month(int day) {
+        int shifted = day + 719468; // days since March 1st, year 0
+        int era = Math.floorDiv(shifted, 146097);
+        int dayOfEra = shifted - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthOfYear = (5 * dayOfYear + 2) / 153; // from March
+        int year = yearOfEra + era * 400 + (monthOfYear >= 10 ? 1 : 0);
+        int month = monthOfYear < 10 ? monthOfYear + 2 : monthOfYear - 10; // from January, 0-based
+
+        return year * 12 + month;
+    }
+}
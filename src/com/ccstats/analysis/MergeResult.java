@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+/**
+ * The outcome of merging a pool into another with TransactionPool#merge(TransactionPool, boolean).
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public class MergeResult {
+
+    private final int added, skipped;
+
+
+    /**
+     * Constructor for the MergeResult class.
+     *
+     * @param added   The number of transactions added by the merge.
+     * @param skipped The number of transactions skipped as duplicates.
+     */
+    MergeResult(int added, int skipped) {
+        this.added = added;
+        this.skipped = skipped;
+    }
+
+
+    /**
+     *
+     * @return The number of transactions added by the merge.
+     */
+    public int getAdded() {
+        return added;
+    }
+
+
+    /**
+     *
+     * @return The number of transactions skipped as duplicates of transactions already in the pool.
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+
+    /**
+     * Overrides the default toString() Object method to summarize the merge.
+     *
+     * @return A Formatted String with the number of added and skipped transactions.
+     */
+    @Override
+    public String toString() {
+        return String.format("[Added=%d, Skipped=%d]", added, skipped);
+    }
+}
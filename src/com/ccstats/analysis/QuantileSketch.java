@@ -0,0 +1,293 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Mergeable sketch of the distribution of a set of transaction amounts, after the KLL sketch of Karnin,
+ * Lang and Liberty. Amounts are kept in levels of buffers, where every amount of level h stands for
+ * 2^h amounts. A level that outgrows its capacity is compacted: it is sorted and every other amount is
+ * promoted to the level above, which halves its size while keeping the total weight exact.
+ *
+ * The capacities shrink geometrically from the top level down, so the sketch retains about 3k amounts
+ * however many are added, and the rank of any percentile is off by roughly 1.7 / k of the count at most.
+ * Until the first compaction, percentiles are exact. The amounts promoted by a compaction alternate between
+ * the odd and even positions, so the sketch of a given sequence of amounts is always the same.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public class QuantileSketch {
+
+    private static final int DEFAULT_K = 200;
+    private static final double CAPACITY_RATIO = 2.0 / 3.0;
+
+    private final int k;
+    private long[][] levels = new long[1][];
+    private int[] sizes = new int[1];
+    private boolean[] offsets = new boolean[1];
+    private long count;
+
+    // the number of amounts held by all levels, and the number they can hold before one is compacted.
+    private int retained, capacity;
+
+    // the retained amounts sorted with their weights, computed on the first percentile query after a change.
+    private long[] sorted, weights;
+
+
+    /**
+     * Default constructor. Creates an empty sketch with a rank error of about 1%.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+
+    /**
+     * Creates an empty sketch of the provided accuracy.
+     *
+     * @param k The capacity of the top level; larger values retain more amounts and lower the error.
+     */
+    public QuantileSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("The capacity must be at least 8: " + k);
+        }
+
+        this.k = k;
+        this.levels[0] = new long[k];
+        this.capacity = k;
+    }
+
+
+    /**
+     * Constructs a copy of the provided sketch.
+     *
+     * @param other The sketch being copied.
+     */
+    public QuantileSketch(QuantileSketch other) {
+        this.k = other.k;
+        this.count = other.count;
+        this.retained = other.retained;
+        this.capacity = other.capacity;
+        this.sizes = other.sizes.clone();
+        this.offsets = other.offsets.clone();
+        this.levels = new long[other.levels.length][];
+
+        for (int h = 0; h < levels.length; h++) {
+            levels[h] = other.levels[h].clone();
+        }
+    }
+
+
+    /**
+     * Accounts for one more amount.
+     *
+     * @param cents The amount in cents.
+     */
+    public void add(long cents) {
+        append(0, cents);
+        count++;
+        sorted = null;
+
+        compress();
+    }
+
+
+    /**
+     * Accounts for every amount of another sketch. The accuracy of the result is the one of this sketch.
+     *
+     * @param other The sketch being merged into this one.
+     */
+    public void merge(QuantileSketch other) {
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+
+        count += other.count;
+        sorted = null;
+
+        compress();
+    }
+
+
+    /**
+     *
+     * @return The number of amounts accounted for.
+     */
+    public long getCount() {
+        return count;
+    }
+
+
+    /**
+     * Estimates the amount below which the provided percentage of the amounts fall, using the nearest rank
+     * method: the result is always one of the amounts that were added.
+     *
+     * @param percentile The percentage, from 0 to 100.
+     *
+     * @return The estimated amount at the percentile, or NaN if the sketch is empty.
+     */
+    public double getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        sort();
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulative = 0;
+
+        for (int i = 0; i < sorted.length; i++) {
+            cumulative += weights[i];
+            if (cumulative >= rank) {
+                return sorted[i] / 100.0;
+            }
+        }
+
+        return sorted[sorted.length - 1] / 100.0;
+    }
+
+
+    /**
+     *
+     * @return The estimated median amount, or NaN if the sketch is empty.
+     */
+    public double getMedian() {
+        return getPercentile(50);
+    }
+
+
+    /**
+     * Overrides the default toString() Object method to summarize the sketch.
+     *
+     * @return A Formatted String with the count and quartiles.
+     */
+    @Override
+    public String toString() {
+        return String.format("[Count=%d, P25=%.2f, Median=%.2f, P75=%.2f]"
+                , getCount(), getPercentile(25), getMedian(), getPercentile(75));
+    }
+
+
+    /**
+     * Appends an amount to a level, growing the level or adding levels as needed.
+     */
+    private void append(int h, long cents) {
+        if (h >= levels.length) {
+            levels = Arrays.copyOf(levels, h + 1);
+            sizes = Arrays.copyOf(sizes, h + 1);
+            offsets = Arrays.copyOf(offsets, h + 1);
+            levels[h] = new long[capacity(h)];
+
+            capacity = 0;
+            for (int level = 0; level <= h; level++) {
+                capacity += capacity(level);
+            }
+        }
+
+        if (sizes[h] == levels[h].length) {
+            levels[h] = Arrays.copyOf(levels[h], sizes[h] * 2);
+        }
+
+        levels[h][sizes[h]++] = cents;
+        retained++;
+    }
+
+
+    /**
+     * Compacts the lowest level that is over capacity until the sketch fits within its total capacity.
+     */
+    private void compress() {
+        while (retained > capacity) {
+            for (int h = 0; h < levels.length; h++) {
+                if (sizes[h] >= capacity(h)) {
+                    compact(h);
+                    break;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Sorts a level and promotes every other amount of it to the level above. An odd amount out stays.
+     */
+    private void compact(int h) {
+        long[] level = levels[h];
+        int size = sizes[h];
+        Arrays.sort(level, 0, size);
+
+        int pairs = size / 2 * 2;
+        int offset = offsets[h] ? 1 : 0;
+        offsets[h] = !offsets[h];
+
+        for (int i = offset; i < pairs; i += 2) {
+            append(h + 1, level[i]);
+        }
+
+        // the odd amount out is the largest, which stays at this level.
+        level = levels[h];
+        level[0] = level[size - 1];
+        sizes[h] = size - pairs;
+        retained -= pairs;
+    }
+
+
+    /**
+     * The capacity of a level, shrinking geometrically from k at the top level down.
+     */
+    private int capacity(int h) {
+        int depth = levels.length - 1 - h;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(CAPACITY_RATIO, depth)));
+    }
+
+
+    /**
+     * Sorts the retained amounts along with their weights.
+     */
+    private void sort() {
+        if (sorted != null) {
+            return;
+        }
+
+        // every amount is paired with its weight, so a single sort orders both by amount.
+        long[][] items = new long[retained][];
+        int n = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                items[n++] = new long[]{levels[h][i], 1L << h};
+            }
+        }
+
+        Arrays.sort(items, (a, b) -> Long.compare(a[0], b[0]));
+
+        sorted = new long[retained];
+        weights = new long[retained];
+        for (int i = 0; i < retained; i++) {
+            sorted[i] = items[i][0];
+            weights[i] = items[i][1];
+        }
+    }
+}
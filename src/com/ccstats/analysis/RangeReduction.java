@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+
+/**
+ * A reduction over a range of indices, computed as a fork-join task. The range is cut into leaves of a
+ * fixed size and the leaves are combined pairwise up a tree whose shape only depends on the size of the
+ * range. The same tree is walked whether the reduction runs in parallel or inline on the calling thread,
+ * so floating-point results do not depend on the number of threads, or on whether any were used at all.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+class RangeReduction<R> extends RecursiveTask<R> {
+
+    private static final long serialVersionUID = 1L;
+
+    // the number of indices reduced sequentially by a single leaf of the tree.
+    static final int LEAF_SIZE = 4096;
+
+    // ranges smaller than this are always reduced inline, as forking would cost more than it saves.
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final int from, to;
+    private final boolean parallel;
+    private final Leaf<R> leaf;
+    private final BinaryOperator<R> combiner;
+
+
+    /**
+     * Reduces the indices [0, size).
+     *
+     * @param size     The number of indices.
+     * @param parallel True to reduce in the common fork-join pool if the range is large enough.
+     * @param leaf     Reduces a range of at most LEAF_SIZE indices.
+     * @param combiner Combines the results of two adjacent ranges, the earlier range first.
+     *
+     * @return The result of the reduction.
+     */
+    static <R> R reduce(int size, boolean parallel, Leaf<R> leaf, BinaryOperator<R> combiner) {
+        parallel &= size >= PARALLEL_THRESHOLD;
+        RangeReduction<R> task = new RangeReduction<>(0, size, parallel, leaf, combiner);
+
+        if (parallel) {
+            return ForkJoinPool.commonPool().invoke(task);
+        }
+
+        return task.compute();
+    }
+
+
+    private RangeReduction(int from, int to, boolean parallel, Leaf<R> leaf, BinaryOperator<R> combiner) {
+        this.from = from;
+        this.to = to;
+        this.parallel = parallel;
+        this.leaf = leaf;
+        this.combiner = combiner;
+    }
+
+
+    @Override
+    protected R compute() {
+        if (to - from <= LEAF_SIZE) {
+            return leaf.apply(from, to);
+        }
+
+        // the split falls on a leaf boundary, halving the number of leaves.
+        int leaves = (to - from + LEAF_SIZE - 1) / LEAF_SIZE;
+        int middle = from + leaves / 2 * LEAF_SIZE;
+
+        RangeReduction<R> left = new RangeReduction<>(from, middle, parallel, leaf, combiner);
+        RangeReduction<R> right = new RangeReduction<>(middle, to, parallel, leaf, combiner);
+
+        if (parallel) {
+            right.fork();
+            R result = left.compute();
+            return combiner.apply(result, right.join());
+        }
+
+        R result = left.compute();
+        return combiner.apply(result, right.compute());
+    }
+
+
+    /**
+     * Reduces a range of indices sequentially.
+     */
+    @FunctionalInterface
+    interface Leaf<R> {
+
+        /**
+         * @param from The first (inclusive) index.
+         * @param to   The last (exclusive) index.
+         *
+         * @return The result of the range.
+         */
+        R apply(int from, int to);
+    }
+}
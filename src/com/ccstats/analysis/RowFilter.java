@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+/**
+ * A test applied to a row of a TransactionStore. The store is handed to the filter rather than captured
+ * by it, so a filter stays valid however many pools and views it is passed between.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+@FunctionalInterface
+interface RowFilter {
+
+    /**
+     * @param store The store holding the row.
+     * @param row   The row index.
+     *
+     * @return True if the row passes the filter.
+     */
+    boolean test(TransactionStore store, int row);
+
+
+    /**
+     * Combines this filter with another one.
+     *
+     * @param other The other filter.
+     *
+     * @return A filter that passes the rows passing both filters.
+     */
+    default RowFilter and(RowFilter other) {
+        return (store, row) -> test(store, row) && other.test(store, row);
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import com.ccstats.data.Transaction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * Tracks how many times every distinct transaction occurs in a pool. Transactions are hashed on the
+ * attributes compared by Transaction#equals(Object): description, amount and status.
+ *
+ * Every transaction is also filed in a bucket by its frequency, so the most common transactions are
+ * found by walking the buckets from the highest frequency down instead of scanning every entry.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+class TransactionFrequencies {
+
+    private HashMap<Transaction, TransactionFrequency> frequencies = new HashMap<>();
+    private TreeMap<Integer, LinkedHashSet<Transaction>> buckets = new TreeMap<>();
+
+
+    /**
+     * Records one more occurrence of the transaction.
+     *
+     * @param transaction The transaction.
+     */
+    void increment(Transaction transaction) {
+        TransactionFrequency frequency = frequencies.get(transaction);
+
+        if (frequency == null) {
+            frequency = new TransactionFrequency(transaction, 1);
+            frequencies.put(transaction, frequency);
+        } else {
+            unfile(frequency);
+            frequency.increment();
+        }
+
+        file(frequency);
+    }
+
+
+    /**
+     * Starts tracking a transaction that is not tracked yet with the provided frequency. The transaction is
+     * ordered after the transactions of the same frequency that are already tracked.
+     *
+     * @param transaction The transaction.
+     * @param frequency   The number of occurrences of the transaction.
+     */
+    void put(Transaction transaction, int frequency) {
+        TransactionFrequency entry = new TransactionFrequency(transaction, frequency);
+
+        frequencies.put(transaction, entry);
+        file(entry);
+    }
+
+
+    /**
+     * Records the removal of one occurrence of the transaction. The entry is dropped once its
+     * frequency reaches zero.
+     *
+     * @param transaction The transaction.
+     */
+    void decrement(Transaction transaction) {
+        TransactionFrequency frequency = frequencies.get(transaction);
+        if (frequency == null) {
+            return;
+        }
+
+        unfile(frequency);
+        frequency.decrement();
+
+        if (frequency.getFrequency() == 0) {
+            frequencies.remove(transaction);
+        } else {
+            file(frequency);
+        }
+    }
+
+
+    /**
+     *
+     * @param transaction The transaction.
+     *
+     * @return The amount of times the transaction occurs.
+     */
+    int getFrequency(Transaction transaction) {
+        TransactionFrequency frequency = frequencies.get(transaction);
+        return frequency == null ? 0 : frequency.getFrequency();
+    }
+
+
+    /**
+     * Stops tracking the least common transaction, the one that reached its frequency first on ties.
+     *
+     * @return The frequency of the transaction, or null if no transaction is tracked.
+     */
+    TransactionFrequency removeLeastCommon() {
+        if (buckets.isEmpty()) {
+            return null;
+        }
+
+        Transaction transaction = buckets.firstEntry().getValue().iterator().next();
+        TransactionFrequency frequency = frequencies.remove(transaction);
+        unfile(frequency);
+
+        return frequency;
+    }
+
+
+    /**
+     *
+     * @return The number of distinct transactions tracked.
+     */
+    int size() {
+        return frequencies.size();
+    }
+
+
+    /**
+     *
+     * @return The most that any frequency may overestimate the actual number of occurrences, 0 as every
+     *         occurrence is counted.
+     */
+    int getErrorBound() {
+        return 0;
+    }
+
+
+    /**
+     *
+     * @return The most common transaction, or null if no transaction is tracked.
+     */
+    Transaction getMostCommon() {
+        if (buckets.isEmpty()) {
+            return null;
+        }
+
+        return buckets.lastEntry().getValue().iterator().next();
+    }
+
+
+    /**
+     * Acquires the k most common transactions along with their frequencies, most common first.
+     *
+     * @param k The number of transactions to acquire.
+     *
+     * @return The list of up to k transaction frequencies.
+     */
+    List<TransactionFrequency> getMostCommon(int k) {
+        List<TransactionFrequency> mostCommon = new ArrayList<>(Math.min(k, frequencies.size()));
+
+        for (Map.Entry<Integer, LinkedHashSet<Transaction>> bucket : buckets.descendingMap().entrySet()) {
+            for (Transaction transaction : bucket.getValue()) {
+                if (mostCommon.size() == k) {
+                    return mostCommon;
+                }
+
+                mostCommon.add(new TransactionFrequency(transaction, bucket.getKey()));
+            }
+        }
+
+        return mostCommon;
+    }
+
+
+    /**
+     * Places the transaction in the bucket of its current frequency.
+     */
+    private void file(TransactionFrequency frequency) {
+        buckets.computeIfAbsent(frequency.getFrequency(), f -> new LinkedHashSet<>())
+                .add(frequency.getTransaction());
+    }
+
+
+    /**
+     * Removes the transaction from the bucket of its current frequency.
+     */
+    private void unfile(TransactionFrequency frequency) {
+        LinkedHashSet<Transaction> bucket = buckets.get(frequency.getFrequency());
+        bucket.remove(frequency.getTransaction());
+
+        if (bucket.isEmpty()) {
+            buckets.remove(frequency.getFrequency());
+        }
+    }
+}
@@ -60,6 +60,14 @@ public class TransactionFrequency {
     }
 
 
+    /**
+     * Decrements the frequency of the transaction.
+     */
+    public void decrement() {
+        frequency--;
+    }
+
+
     /**
      *
      * @return The Transaction.
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import com.ccstats.data.DescriptionDictionary;
+
+import java.time.LocalDate;
+
+
+/**
+ * A group of transactions sharing the same values for the keys they have been grouped by, as computed by
+ * TransactionPool#groupBy(GroupKey...), along with the statistics of their amounts.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public class TransactionGroup {
+
+    private final GroupKey[] keys;
+    private final int[] values;
+    private final TransactionStatistics statistics;
+    private final DescriptionDictionary dictionary;
+
+
+    /**
+     * Constructor for the TransactionGroup class.
+     *
+     * @param keys       The keys of the grouping.
+     * @param values     The values of the keys shared by the transactions of the group.
+     * @param statistics The statistics of the amounts of the group.
+     * @param dictionary The dictionary the description id of the group refers to.
+     */
+    TransactionGroup(GroupKey[] keys, int[] values, TransactionStatistics statistics,
+                     DescriptionDictionary dictionary) {
+        this.keys = keys;
+        this.values = values;
+        this.statistics = statistics;
+        this.dictionary = dictionary;
+    }
+
+
+    /**
+     *
+     * @return The description shared by the transactions of the group, or null if they have not been
+     *         grouped by description.
+     */
+    public String getDescription() {
+        int i = indexOf(GroupKey.DESCRIPTION);
+        return i < 0 ? null : dictionary.get(values[i]);
+    }
+
+
+    /**
+     * Acquires the first date of the period shared by the transactions of the group. If the transactions
+     * have been grouped by several date keys, the shortest period is used.
+     *
+     * @return The first date of the day, week or month of the group, or null if the transactions have not
+     *         been grouped by date.
+     */
+    public LocalDate getDate() {
+        for (GroupKey key : new GroupKey[]{GroupKey.DAY, GroupKey.WEEK, GroupKey.MONTH}) {
+            int i = indexOf(key);
+            if (i >= 0) {
+                return key.toDate(values[i]);
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     *
+     * @return The status shared by the transactions of the group, or null if they have not been grouped
+     *         by status.
+     */
+    public Boolean getAuthorized() {
+        int i = indexOf(GroupKey.AUTHORIZED);
+        return i < 0 ? null : values[i] == 1;
+    }
+
+
+    /**
+     *
+     * @return The number of transactions in the group.
+     */
+    public long getCount() {
+        return statistics.getCount();
+    }
+
+
+    /**
+     *
+     * @return The balance of the group.
+     */
+    public double getBalance() {
+        return statistics.getSum();
+    }
+
+
+    /**
+     *
+     * @return The average amount of the group.
+     */
+    public double getAverageTransactionAmount() {
+        return statistics.getMean();
+    }
+
+
+    /**
+     *
+     * @return The standard deviation of the amounts of the group.
+     */
+    public double getStandardDeviation() {
+        return statistics.getStandardDeviation();
+    }
+
+
+    /**
+     *
+     * @return The smallest amount of the group.
+     */
+    public double getMinimum() {
+        return statistics.getMinimum();
+    }
+
+
+    /**
+     *
+     * @return The largest amount of the group.
+     */
+    public double getMaximum() {
+        return statistics.getMaximum();
+    }
+
+
+    /**
+     *
+     * @return A copy of the TransactionStatistics of the group.
+     */
+    public TransactionStatistics getStatistics() {
+        return new TransactionStatistics(statistics);
+    }
+
+
+    /**
+     * Overrides the default toString() Object method to summarize the group.
+     *
+     * @return A Formatted String with the values of the keys and the statistics of the group.
+     */
+    @Override
+    public String toString() {
+        StringBuilder group = new StringBuilder("[");
+
+        for (int i = 0; i < keys.length; i++) {
+            GroupKey key = keys[i];
+            Object value = key == GroupKey.DESCRIPTION ? getDescription()
+                    : key == GroupKey.AUTHORIZED ? getAuthorized() : key.toDate(values[i]);
+
+            group.append(key).append('=').append(value).append(", ");
+        }
+
+        return group.append("Statistics=").append(statistics).append(']').toString();
+    }
+
+
+    /**
+     *
+     * @return The position of the key in the grouping, or -1 if it is not part of it.
+     */
+    private int indexOf(GroupKey key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -17,509 +17,2068 @@
 package com.ccstats.analysis;
 
 
+import com.ccstats.data.DescriptionDictionary;
 import com.ccstats.data.Transaction;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 
 /**
+ * A date-sorted list of transactions, with the latest transaction first. The transactions are held
+ * in a columnar TransactionStore rather than as individual objects; a Transaction is only created
+ * when the pool is read through get(int) or iterated over.
+ *
+ * Date ranges and filtered subsets of a pool are returned as views over the same store. A filtered
+ * view is only evaluated when it is first read, and a view is copied into a pool of its own the first
+ * time it is modified.
+ *
+ * In parallel mode, the passes over a large pool (statistics, extremes, frequency counts and filters) run
+ * as fork-join reductions over fixed-size ranges of the pool. Small pools are always reduced sequentially.
+ *
+ * The pool is a List of its own rather than an ArrayList, and it is always sorted by date: set(int, E) and
+ * replaceAll only accept replacements whose dates keep that order, sort(Comparator) is not supported, and
+ * the ArrayList extras (clone(), ensureCapacity(int), trimToSize() and serialization) are not provided.
  *
  * @author Ahmed Sakr
  * @since December 17, 2015.
  */
-public class TransactionPool extends ArrayList<Transaction> {
+public class TransactionPool extends AbstractList<Transaction> implements RandomAccess {
+
+    private static final DateTimeFormatter STATEMENT_DATE = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+
+    private TransactionStore store;
+
+    // a view maps its indices onto the rows [from, to) of the store, or onto rows[from, to) if it has a row
+    // list. A pool that owns its store maps every index directly onto the row of the same index.
+    private boolean view;
+    private int[] rows;
+    private int from, to;
+
+    // a pending filter is applied to the positions [from, to) the first time the view is read.
+    private RowFilter filter;
+
+    // built on the first frequency query, and kept up to date by every mutation afterwards. A positive
+    // capacity tracks that many transactions at most, approximately.
+    private TransactionFrequencies frequencies;
+    private int frequencyCapacity;
 
-    private HashMap<Transaction, TransactionFrequency> frequencies = new HashMap<>();
+    // computed on the first statistics query and kept up to date by add and remove afterwards. The indices
+    // of the most and least expensive transactions are -1 whenever they need to be looked up again.
+    private TransactionStatistics statistics;
+    private int mostExpensive = -1, leastExpensive = -1;
+
+    // built on the first window query. Transactions dated on or after the latest indexed day extend it, and
+    // any other mutation discards it.
+    private DailyIndex dailyIndex;
+
+    // built on the first amount query after a change. Every mutation discards it, so that a run of changes
+    // costs the index a single rebuild, on the next amount query, rather than renumbering it on each change.
+    private AmountIndex amountIndex;
+
+    // built on the first percentile query and kept up to date by insertions afterwards. A sketch cannot
+    // forget an amount, so removals discard it.
+    private QuantileSketch sketch;
+
+    // whether the passes over the pool run as parallel reductions. Views inherit the mode of their pool.
+    private boolean parallel;
 
     /**
      * Default constructor. Allows for no parameter construction of the class.
      */
     public TransactionPool() {
+        this.store = new TransactionStore(new DescriptionDictionary(), 0);
+    }
+
+
+    /**
+     * Constructs a new TransactionPool object, and transfers all elements in the collection to the object.
+     * The elements are bulk loaded through addAll(Collection c) rather than inserted one at a time.
+     *
+     * @param transactions The collection with elements to be appended to the object.
+     */
+    public TransactionPool(Collection<? extends Transaction> transactions) {
+        this.store = new TransactionStore(new DescriptionDictionary(), transactions.size());
+        this.addAll(transactions);
+    }
+
+
+    /**
+     * Constructs a view over rows of the store of an existing pool. The store is flagged as shared so that
+     * the pool owning it copies it before its next mutation, leaving the view untouched.
+     *
+     * @param source The pool whose store holds the rows.
+     * @param rows   The row list the view indexes into, or null if the view covers a contiguous range of rows.
+     * @param from   The first (inclusive) position of the view.
+     * @param to     The last (exclusive) position of the view.
+     * @param filter The filter to be applied to the positions on first read, or null.
+     */
+    private TransactionPool(TransactionPool source, int[] rows, int from, int to, RowFilter filter) {
+        this.store = source.store;
+        this.rows = rows;
+        this.from = from;
+        this.to = to;
+        this.filter = filter;
+        this.view = true;
+        this.parallel = source.parallel;
+        this.frequencyCapacity = source.frequencyCapacity;
+
+        store.share();
+    }
+
+
+    /**
+     * Creates the Transaction object held at the index.
+     *
+     * @param i The index of the transaction in the pool.
+     *
+     * @return The Transaction.
+     */
+    @Override
+    public Transaction get(int i) {
+        checkIndex(i, size() - 1);
+        return store.get(row(i));
+    }
+
+
+    /**
+     * Creates a spliterator that splits the pool in halves by index, for parallel streams over the pool.
+     *
+     * @return The Spliterator of the transactions.
+     */
+    @Override
+    public Spliterator<Transaction> spliterator() {
+        return new TransactionSpliterator(i -> store.get(row(i)), 0, size());
+    }
+
+
+    /**
+     * Enables or disables the parallel mode of the pool. Results are the same in both modes.
+     *
+     * @param parallel True to run the passes over large pools as parallel reductions.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+
+    /**
+     *
+     * @return True if the pool is in parallel mode.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+
+    /**
+     * Bounds the memory used to track the frequencies of the transactions. With a positive capacity, only
+     * that many distinct transactions are tracked, with the Space-Saving algorithm: the most common
+     * transactions are kept, and their frequencies may be overestimated by getFrequencyErrorBound() at most.
+     * A capacity of 0 tracks every transaction exactly, which is the default.
+     *
+     * @param capacity The number of distinct transactions tracked at most, or 0 for exact tracking.
+     */
+    public void setFrequencyCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity must not be negative: " + capacity);
+        }
+
+        if (capacity != frequencyCapacity) {
+            frequencyCapacity = capacity;
+            frequencies = null;
+        }
+    }
+
+
+    /**
+     *
+     * @return The number of distinct transactions tracked at most, or 0 if they are tracked exactly.
+     */
+    public int getFrequencyCapacity() {
+        return frequencyCapacity;
+    }
+
+
+    /**
+     *
+     * @return The number of transactions in the pool.
+     */
+    @Override
+    public int size() {
+        resolve();
+        return end() - from;
+    }
+
+
+    /**
+     * Override is necessary to assure that every time this method is called, the list remains
+     * sorted. The insertion point is found with a binary search: the transaction is placed right
+     * before the first transaction that is not after it, which puts it ahead of any transactions
+     * sharing its date.
+     *
+     * @param transaction The transaction being appended to the list.
+     *
+     * @return True always as this method calls add(index, E e) that is void.
+     */
+    @Override
+    public boolean add(Transaction transaction) {
+        add(indexOfFirstNotAfter((int) transaction.getDate().toEpochDay()), transaction);
+
+        return true;
+    }
+
+
+    /**
+     * Overriding this add method as well to ensure that the list is always sorted.
+     *
+     * @param i The position in the pool where the transaction element is to be placed.
+     * @param transaction The transaction element being inserted into the pool.
+     */
+    @Override
+    public void add(int i, Transaction transaction) {
+        checkIndex(i, size());
+        prepareForMutation();
+
+        store.insert(i, transaction);
+        modCount++;
+        rowAdded(store.day(i), store.amount(i));
+
+        if (dailyIndex != null && !dailyIndex.append(store.day(i), store.amount(i))) {
+            dailyIndex = null;
+        }
+
+        amountIndex = null;
+
+        if (sketch != null) {
+            sketch.add(store.amount(i));
+        }
+
+        if (frequencies != null) {
+            frequencies.increment(transaction);
+        }
+
+        if (statistics != null) {
+            long amount = store.amount(i);
+            statistics.add(amount);
+
+            // the new transaction takes over on ties if it sits after the current extreme, as a scan would.
+            if (mostExpensive >= 0) {
+                mostExpensive += mostExpensive >= i ? 1 : 0;
+                long most = store.amount(mostExpensive);
+                mostExpensive = amount > most || (amount == most && i > mostExpensive) ? i : mostExpensive;
+            }
+
+            if (leastExpensive >= 0) {
+                leastExpensive += leastExpensive >= i ? 1 : 0;
+                long least = store.amount(leastExpensive);
+                leastExpensive = amount < least || (amount == least && i > leastExpensive) ? i : leastExpensive;
+            }
+        }
+    }
+
+
+
+    /**
+     * Override is necessary to assure that every time this method is called, the list remains
+     * sorted. Rather than inserting every element one at a time, the collection is sorted once and
+     * merged with the transactions already in the pool in a single linear pass.
+     *
+     * The resulting order is exactly the one produced by calling add(E e) on every element of the
+     * collection in iteration order: transactions sharing a date end up in reverse insertion order,
+     * ahead of the transactions of that date that were already in the pool.
+     *
+     * @param transactions The transactions collection being appended to the list.
+     *
+     * @return True always.
+     */
+    @Override
+    public boolean addAll(Collection<? extends Transaction> transactions) {
+        int count = transactions.size();
+        if (count == 0) {
+            return true;
+        }
+
+        prepareForMutation();
+        TransactionStore incoming = new TransactionStore(store.getDictionary(), count);
+        if (transactions instanceof TransactionPool) {
+            TransactionPool other = (TransactionPool) transactions;
+            count = other.size();
+            for (int i = 0; i < count; i++) {
+                incoming.append(other.store, other.row(i));
+            }
+        } else {
+            for (Transaction transaction : transactions) {
+                incoming.append(transaction);
+            }
+        }
+
+        // sort keys hold the negated date in the high bits and the position in the reversed run in the low
+        // bits. Reversing before sorting mirrors the order that repeated calls to add(E e) would give.
+        long[] order = new long[count];
+        for (int row = 0; row < count; row++) {
+            order[row] = ((long) -incoming.day(row) << 32) | (count - 1 - row);
+        }
+        Arrays.sort(order);
+
+        TransactionStore merged = new TransactionStore(store.getDictionary(), store.size() + count);
+        int i = 0, j = 0;
+        while (i < count || j < store.size()) {
+            int row = i < count ? count - 1 - (int) order[i] : -1;
+
+            if (j < store.size() && (row < 0 || store.day(j) > incoming.day(row))) {
+                merged.append(store, j++);
+            } else {
+                merged.append(incoming, row);
+                i++;
+            }
+        }
+
+        store = merged;
+        modCount++;
+        accountFor(incoming);
+
+        return true;
+    }
+
+
+    /**
+     * Merges another date-sorted pool into this one in a single linear pass over both pools, without sorting
+     * the incoming transactions. The merged order is the one addAll(Collection c) would give.
+     *
+     * If duplicates are skipped, an incoming transaction equal to a transaction of this pool (same date,
+     * description, amount and status) is left out. The transactions of this pool dated on a day are hashed
+     * once, and probed by the incoming transactions of the same day. Every transaction of this pool matches
+     * one incoming transaction at most, so a purchase that genuinely happened twice on a day is kept twice
+     * when only one of them is already in the pool.
+     *
+     * @param other          The pool being merged into this one.
+     * @param skipDuplicates Whether the transactions already in this pool are left out.
+     *
+     * @return The MergeResult with the number of added and skipped transactions.
+     */
+    public MergeResult merge(TransactionPool other, boolean skipDuplicates) {
+        int count = other.size();
+        if (count == 0) {
+            return new MergeResult(0, 0);
+        }
+
+        prepareForMutation();
+        TransactionStore source = other.store;
+        TransactionStore incoming = new TransactionStore(store.getDictionary(), count);
+        TransactionStore merged = new TransactionStore(store.getDictionary(), store.size() + count);
+
+        // the table maps a hash slot onto 1 + a row of this pool dated on the current day, or 0 if it is free.
+        int[] table = new int[16];
+        BitSet matched = new BitSet();
+        int i = 0, j = 0, skipped = 0;
+
+        while (i < count) {
+            int day = source.day(other.row(i));
+            while (j < store.size() && store.day(j) > day) {
+                merged.append(store, j++);
+            }
+
+            int run = i, same = j;
+            while (run < count && source.day(other.row(run)) == day) {
+                run++;
+            }
+            while (same < store.size() && store.day(same) == day) {
+                same++;
+            }
+
+            int mask = -1;
+            if (skipDuplicates && same > j) {
+                mask = Integer.highestOneBit((same - j) * 2 - 1) * 2 - 1;
+                if (table.length <= mask) {
+                    table = new int[mask + 1];
+                } else {
+                    Arrays.fill(table, 0, mask + 1, 0);
+                }
+
+                for (int row = j; row < same; row++) {
+                    int slot = Long.hashCode(store.amount(row)) & mask;
+                    while (table[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+
+                    table[slot] = row + 1;
+                }
+            }
+
+            // the incoming transactions of the day are taken in reverse, ahead of the ones of this pool.
+            for (int k = run - 1; k >= i; k--) {
+                int row = other.row(k);
+
+                if (mask >= 0 && claim(table, mask, matched, source, row)) {
+                    skipped++;
+                } else {
+                    merged.append(source, row);
+                    incoming.append(source, row);
+                }
+            }
+
+            while (j < same) {
+                merged.append(store, j++);
+            }
+
+            i = run;
+        }
+
+        while (j < store.size()) {
+            merged.append(store, j++);
+        }
+
+        store = merged;
+        modCount++;
+        accountFor(incoming);
+
+        return new MergeResult(incoming.size(), skipped);
+    }
+
+
+    /**
+     * Merges several date-sorted pools into this one in a single k-way merge, without sorting any of them.
+     * The merged order is the one merging every pool in turn with merge(TransactionPool, false) would give:
+     * on a given day, the transactions of later pools come first.
+     *
+     * @param pools The pools being merged into this one.
+     *
+     * @return The MergeResult with the number of added transactions.
+     */
+    public MergeResult mergeAll(List<? extends TransactionPool> pools) {
+        TransactionPool[] sources = pools.toArray(new TransactionPool[0]);
+        int[] next = new int[sources.length];
+        int count = 0;
+
+        for (TransactionPool source : sources) {
+            count += source.size();
+        }
+
+        if (count == 0) {
+            return new MergeResult(0, 0);
+        }
+
+        prepareForMutation();
+        TransactionStore incoming = new TransactionStore(store.getDictionary(), count);
+        TransactionStore merged = new TransactionStore(store.getDictionary(), store.size() + count);
+
+        // the heap holds the pools with transactions left, latest next transaction first and later pools on ties.
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, sources.length), (a, b) -> {
+            int days = Integer.compare(sources[b].store.day(sources[b].row(next[b])),
+                    sources[a].store.day(sources[a].row(next[a])));
+            return days != 0 ? days : Integer.compare(b, a);
+        });
+
+        for (int s = 0; s < sources.length; s++) {
+            if (sources[s].size() > 0) {
+                heap.add(s);
+            }
+        }
+
+        int j = 0;
+        while (!heap.isEmpty()) {
+            int s = heap.poll();
+            TransactionPool source = sources[s];
+            int day = source.store.day(source.row(next[s]));
+
+            while (j < store.size() && store.day(j) > day) {
+                merged.append(store, j++);
+            }
+
+            int run = next[s];
+            while (run < source.size() && source.store.day(source.row(run)) == day) {
+                run++;
+            }
+
+            // the transactions of the day are taken in reverse, as merge(TransactionPool, boolean) takes them.
+            for (int i = run - 1; i >= next[s]; i--) {
+                merged.append(source.store, source.row(i));
+                incoming.append(source.store, source.row(i));
+            }
+
+            next[s] = run;
+            if (run < source.size()) {
+                heap.add(s);
+            }
+        }
+
+        while (j < store.size()) {
+            merged.append(store, j++);
+        }
+
+        store = merged;
+        modCount++;
+        accountFor(incoming);
+
+        return new MergeResult(count, 0);
+    }
+
+
+    /**
+     * Probes the duplicate table of a day for an unmatched row of this pool equal to an incoming row, and
+     * flags it as matched if it is found.
+     *
+     * @param table   The table of the rows of this pool dated on the day of the incoming row.
+     * @param mask    The mask of the hash slots of the table.
+     * @param matched The rows of this pool already matched by an incoming row.
+     * @param source  The store holding the incoming row.
+     * @param row     The incoming row.
+     *
+     * @return True if the incoming row is a duplicate.
+     */
+    private boolean claim(int[] table, int mask, BitSet matched, TransactionStore source, int row) {
+        long amount = source.amount(row);
+        boolean sameDictionary = source.getDictionary() == store.getDictionary();
+
+        for (int slot = Long.hashCode(amount) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int candidate = table[slot] - 1;
+
+            if (!matched.get(candidate) && store.amount(candidate) == amount
+                    && store.isAuthorized(candidate) == source.isAuthorized(row)
+                    && (sameDictionary ? store.description(candidate) == source.description(row)
+                    : store.getDictionary().get(store.description(candidate))
+                            .equals(source.getDictionary().get(source.description(row))))) {
+                matched.set(candidate);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Updates the derived state of the pool after the rows of a store have been merged into it.
+     *
+     * @param incoming The store holding the added rows.
+     */
+    private void accountFor(TransactionStore incoming) {
+        int count = incoming.size();
+        dailyIndex = null;
+        amountIndex = null;
+
+        for (int row = 0; row < count; row++) {
+            rowAdded(incoming.day(row), incoming.amount(row));
+        }
+
+        if (frequencies != null) {
+            for (int row = 0; row < count; row++) {
+                frequencies.increment(incoming.get(row));
+            }
+        }
+
+        if (sketch != null) {
+            for (int row = 0; row < count; row++) {
+                sketch.add(incoming.amount(row));
+            }
+        }
+
+        if (statistics != null) {
+            for (int row = 0; row < count; row++) {
+                statistics.add(incoming.amount(row));
+            }
+
+            mostExpensive = leastExpensive = -1;
+        }
+    }
+
+
+    /**
+     * Replaces the transaction at the index. The replacement keeps the index, so it must be dated no
+     * later than the transaction before it and no earlier than the transaction after it.
+     *
+     * @param i           The index of the transaction being replaced.
+     * @param transaction The transaction replacing it.
+     *
+     * @return The replaced transaction.
+     * @throws IllegalArgumentException If the date of the replacement does not fit at the index.
+     */
+    @Override
+    public Transaction set(int i, Transaction transaction) {
+        Objects.requireNonNull(transaction);
+        checkIndex(i, size() - 1);
+        int day = (int) transaction.getDate().toEpochDay();
+
+        // the latest transaction comes first, so the transaction before the index must not be dated earlier
+        // and the one after it must not be dated later.
+        if ((i > 0 && store.day(row(i - 1)) < day) || (i < size() - 1 && store.day(row(i + 1)) > day)) {
+            throw new IllegalArgumentException(String.format("The transaction dated %s does not fit at "
+                    + "index %d of the date-sorted pool.", transaction.getDate(), i));
+        }
+
+        Transaction replaced = remove(i);
+        add(i, transaction);
+
+        return replaced;
+    }
+
+
+    /**
+     * Replaces every transaction with the result of the operator. The replacements are all computed before
+     * the pool is changed, and the pool is left untouched unless they are still sorted by date.
+     *
+     * @param operator The operator applied to each transaction.
+     * @throws IllegalArgumentException If the replacements are not sorted by date, latest first.
+     */
+    @Override
+    public void replaceAll(UnaryOperator<Transaction> operator) {
+        Objects.requireNonNull(operator);
+        Transaction[] replacements = new Transaction[size()];
+
+        for (int i = 0; i < replacements.length; i++) {
+            replacements[i] = Objects.requireNonNull(operator.apply(get(i)));
+
+            if (i > 0 && replacements[i].getDate().isAfter(replacements[i - 1].getDate())) {
+                throw new IllegalArgumentException(String.format("The transaction dated %s does not fit at "
+                        + "index %d of the date-sorted pool.", replacements[i].getDate(), i));
+            }
+        }
+
+        clear();
+        for (int i = 0; i < replacements.length; i++) {
+            add(i, replacements[i]);
+        }
+    }
+
+
+    /**
+     * The pool is always sorted by date, latest first, and cannot be reordered.
+     *
+     * @param comparator The comparator of the order.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void sort(Comparator<? super Transaction> comparator) {
+        throw new UnsupportedOperationException("A TransactionPool is always sorted by date.");
+    }
+
+
+    /**
+     * Removes the transaction at the index.
+     *
+     * @param i The index of the transaction in the pool.
+     *
+     * @return The removed transaction.
+     */
+    @Override
+    public Transaction remove(int i) {
+        Transaction transaction = get(i);
+        prepareForMutation();
+
+        int day = store.day(i);
+        long amount = store.amount(i);
+        store.remove(i);
+        modCount++;
+        rowRemoved(day, amount);
+        dailyIndex = null;
+        amountIndex = null;
+        sketch = null;
+
+        if (frequencies != null) {
+            frequencies.decrement(transaction);
+        }
+
+        if (statistics != null) {
+            statistics.remove(amount);
+
+            mostExpensive = mostExpensive == i ? -1 : mostExpensive - (mostExpensive > i ? 1 : 0);
+            leastExpensive = leastExpensive == i ? -1 : leastExpensive - (leastExpensive > i ? 1 : 0);
+        }
+
+        return transaction;
+    }
+
+
+    /**
+     * Removes every transaction that satisfies the filter in a single compacting pass over the pool.
+     *
+     * @param filter The filter that selects the transactions to be removed.
+     *
+     * @return True if any transaction has been removed.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Transaction> filter) {
+        Objects.requireNonNull(filter);
+        return removeRows((store, row) -> filter.test(store.get(row)));
+    }
+
+
+    /**
+     * Removes every transaction that is equal to an element of the collection.
+     *
+     * @param transactions The transactions to be removed.
+     *
+     * @return True if any transaction has been removed.
+     */
+    @Override
+    public boolean removeAll(Collection<?> transactions) {
+        Objects.requireNonNull(transactions);
+        return removeIf(transactions::contains);
+    }
+
+
+    /**
+     * Removes every transaction that is not equal to an element of the collection.
+     *
+     * @param transactions The transactions to be kept.
+     *
+     * @return True if any transaction has been removed.
+     */
+    @Override
+    public boolean retainAll(Collection<?> transactions) {
+        Objects.requireNonNull(transactions);
+        return removeIf(transaction -> !transactions.contains(transaction));
+    }
+
+
+    /**
+     * Removes every transaction in the pool.
+     */
+    @Override
+    public void clear() {
+        if (view || store.isShared()) {
+            own(new TransactionStore(store.getDictionary(), 0));
+        } else {
+            store.clear();
+        }
+
+        modCount++;
+        frequencies = null;
+        statistics = null;
+        dailyIndex = null;
+        amountIndex = null;
+        sketch = null;
+        rowsCleared();
+    }
+
+
+    /**
+     * Called whenever a transaction is added to the pool, so that subclasses can maintain aggregates of
+     * their own. Does nothing by default.
+     *
+     * @param day   The epoch day of the transaction.
+     * @param cents The amount of the transaction in cents.
+     */
+    protected void rowAdded(int day, long cents) {
+
+    }
+
+
+    /**
+     * Called whenever a transaction is removed from the pool. Does nothing by default.
+     *
+     * @param day   The epoch day of the transaction.
+     * @param cents The amount of the transaction in cents.
+     */
+    protected void rowRemoved(int day, long cents) {
+
+    }
+
+
+    /**
+     * Called whenever every transaction of the pool is removed at once. Does nothing by default.
+     */
+    protected void rowsCleared() {
+
+    }
+
+
+    /**
+     * Acquires all transactions that are of type debit. A Debit transaction is usually a payment
+     * induced by the customer to pay off previous credit transactions.
+     *
+     * @return The lazily filtered TransactionPool view of the debit transactions.
+     */
+    public TransactionPool getDebitTransactions() {
+        return filter((store, row) -> store.amount(row) < 0);
+    }
+
+    /**
+     * Acquires all transactions that are of type credit. A Credit transaction is usually a credit
+     * usage of the credit card.
+     *
+     * @return The lazily filtered TransactionPool view of the credit transactions.
+     */
+    public TransactionPool getCreditTransactions() {
+        return filter((store, row) -> store.amount(row) >= 0);
+    }
+
+
+    /**
+     * Acquires all transactions of the provided status.
+     *
+     * @param authorized True for the authorized transactions, false for the posted transactions.
+     *
+     * @return The TransactionPool of the transactions.
+     */
+    protected TransactionPool getTransactionsByStatus(boolean authorized) {
+        return filter((store, row) -> store.isAuthorized(row) == authorized);
+    }
+
+
+    /**
+     * Computes the Current outstanding balance of this transaction Pool.
+     *
+     * @return The Total Amount
+     */
+    public double getBalance() {
+        return getStatistics().getSum();
+    }
+
+
+    /**
+     * Acquires the running statistics of the pool. They are computed with a single pass over the pool on
+     * first use, and kept up to date by every mutation afterwards.
+     *
+     * @return A copy of the TransactionStatistics of the pool.
+     */
+    public TransactionStatistics getStatistics() {
+        TransactionStatistics copy = new TransactionStatistics(statistics());
+
+        if (!copy.hasExtremes() && size() > 0) {
+            copy.setExtremes(store.amount(row(leastExpensive())), store.amount(row(mostExpensive())));
+        }
+
+        return copy;
+    }
+
+
+    /**
+     * Acquires all transactions from date1 up till date2 (inclusive).
+     *
+     * @param date1 The beginning date, in the statement format (i.e Dec 14, 2015).
+     * @param date2 The (inclusive) ending date, in the statement format.
+     * @return The TransactionPool view of all transactions between the required dates.
+     * @see this#getTransactionsFrom(LocalDate, LocalDate)
+     */
+    public TransactionPool getTransactionsFrom(String date1, String date2) {
+        return getTransactionsFrom(LocalDate.parse(date1, STATEMENT_DATE), LocalDate.parse(date2, STATEMENT_DATE));
+    }
+
+
+    /**
+     * Acquires all transactions from date1 up till date2 (inclusive). As the pool is sorted by date, the
+     * transactions between the two dates are adjacent; both ends of the range are binary searched and a
+     * view over them is returned, without copying any transaction.
+     *
+     * If this pool is a filtered view that has not been read yet, the range is searched before the filter
+     * and the filter is carried over to the returned view, which then only tests the rows in the range.
+     *
+     * @param date1 The beginning date.
+     * @param date2 The (inclusive) ending date.
+     * @return The TransactionPool view of all transactions between the required dates.
+     */
+    public TransactionPool getTransactionsFrom(LocalDate date1, LocalDate date2) {
+        int start = search((int) date2.toEpochDay());
+        int end = Math.max(start, search((int) date1.toEpochDay() - 1));
+
+        return new TransactionPool(this, rows, start, end, filter);
+    }
+
+
+    /**
+     * Acquires all transactions between the minimum and maximum amount range. Both ends of the range are
+     * binary searched in the amount index of the pool, and a view over the matching transactions is returned,
+     * in the order they hold in the pool.
+     *
+     * @param leastAmount The minimum amount a transaction must be to be collected.
+     * @param highestAmount The maximum amount a transaction must be to be collected.
+     *
+     * @return The TransactionPool view of the transactions.
+     */
+    public TransactionPool getTransactionsFrom(double leastAmount, double highestAmount) {
+        AmountIndex index = amountIndex();
+        int start = index.search(amount -> amount / 100.0 >= leastAmount);
+        int end = Math.max(start, index.search(amount -> amount / 100.0 > highestAmount));
+
+        int[] matches = new int[end - start];
+        for (int rank = start; rank < end; rank++) {
+            matches[rank - start] = index.get(rank);
+        }
+
+        // the matches are sorted back into pool order, which keeps the view sorted by date.
+        Arrays.sort(matches);
+        for (int i = 0; i < matches.length; i++) {
+            matches[i] = row(matches[i]);
+        }
+
+        return new TransactionPool(this, matches, 0, matches.length, null);
+    }
+
+
+    /**
+     * Acquires the amount below which the provided percentage of the transactions fall, using the nearest
+     * rank method: the result is always the amount of a transaction of the pool.
+     *
+     * @param percentile The percentage, from 0 to 100.
+     *
+     * @return The amount at the percentile, or NaN if the pool is empty.
+     */
+    public double getAmountPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+
+        if (this.size() == 0) {
+            return Double.NaN;
+        }
+
+        int rank = (int) Math.ceil(percentile / 100 * size());
+        return store.amount(row(amountIndex().get(Math.max(rank, 1) - 1))) / 100.0;
+    }
+
+
+    /**
+     * Estimates the amount below which the provided percentage of the transactions fall from the quantile
+     * sketch of the pool, in fixed memory. The rank of the result is off by about 1% of the size of the pool
+     * at most; see getAmountPercentile(double) for the exact amount.
+     *
+     * @param percentile The percentage, from 0 to 100.
+     *
+     * @return The estimated amount at the percentile, or NaN if the pool is empty.
+     * @see QuantileSketch#getPercentile(double)
+     */
+    public double getPercentile(double percentile) {
+        return quantileSketch().getPercentile(percentile);
+    }
+
+
+    /**
+     *
+     * @return The estimated median amount of the pool, or NaN if the pool is empty.
+     * @see this#getPercentile(double)
+     */
+    public double getMedian() {
+        return getPercentile(50);
+    }
+
+
+    /**
+     *
+     * @return A copy of the QuantileSketch of the amounts of the pool, to be merged with other sketches.
+     */
+    public QuantileSketch getQuantileSketch() {
+        return new QuantileSketch(quantileSketch());
+    }
+
+
+    /**
+     * Acquires the quantile sketch of the pool, building it with a reduction over the pool if needed.
+     *
+     * @return The QuantileSketch of the pool.
+     */
+    private QuantileSketch quantileSketch() {
+        if (sketch == null) {
+            sketch = RangeReduction.reduce(size(), parallel, (from, to) -> {
+                QuantileSketch range = new QuantileSketch();
+                for (int i = from; i < to; i++) {
+                    range.add(store.amount(row(i)));
+                }
+
+                return range;
+            }, (left, right) -> {
+                left.merge(right);
+                return left;
+            });
+        }
+
+        return sketch;
+    }
+
+
+    /**
+     * Acquires the n most expensive transactions in the list, most expensive first.
+     *
+     * @param n The number of transactions to acquire.
+     *
+     * @return The list of up to n transactions.
+     */
+    public List<Transaction> getMostExpensive(int n) {
+        AmountIndex index = amountIndex();
+        List<Transaction> transactions = new ArrayList<>(Math.max(0, Math.min(n, size())));
+
+        for (int rank = size() - 1; rank >= Math.max(0, size() - n); rank--) {
+            transactions.add(store.get(row(index.get(rank))));
+        }
+
+        return transactions;
+    }
+
+
+    /**
+     * Acquires the n least expensive transactions in the list, least expensive first.
+     *
+     * @param n The number of transactions to acquire.
+     *
+     * @return The list of up to n transactions.
+     */
+    public List<Transaction> getLeastExpensive(int n) {
+        AmountIndex index = amountIndex();
+        List<Transaction> transactions = new ArrayList<>(Math.max(0, Math.min(n, size())));
+
+        for (int rank = 0; rank < Math.min(n, size()); rank++) {
+            transactions.add(store.get(row(index.get(rank))));
+        }
+
+        return transactions;
+    }
+
+
+    /**
+     * Acquires the amount index of the pool, sorting the pool by amount if needed.
+     *
+     * @return The AmountIndex of the pool.
+     */
+    private AmountIndex amountIndex() {
+        if (amountIndex == null) {
+            amountIndex = new AmountIndex(size(), i -> store.amount(row(i)));
+        }
+
+        return amountIndex;
+    }
+
+
+    /**
+     * Acquires the days between the earliest date and latest date found in the transactions.
+     * Please note this method has been programmed with a precondition that the list of transactions
+     * is sorted at all times. The very first element in the array (index = 0) is the latest, and the last
+     * element is the earliest transaction found.
+     *
+     * @return The amount of days between the earliest and latest dates, including both dates which
+     * is why + 1 has been added to the return statement.
+     */
+    public long getDaysSize() {
+        if (this.size() == 0) {
+            return 0;
+        }
+
+        return store.day(row(0)) - store.day(row(size() - 1)) + 1;
+    }
+
+
+    /**
+     * Acquires the latest and earliest dates found in the statement, and returns an array of length
+     * 2 elements that contains the earliest and latest LocalDate Objects respectively.
+     *
+     * @return The LocalDate[] of the LocalDates.
+     */
+    public LocalDate[] getDateRange() {
+        if (this.size() == 0) {
+            return null;
+        }
+
+        LocalDate latest = LocalDate.ofEpochDay(store.day(row(0)));
+        LocalDate earliest = LocalDate.ofEpochDay(store.day(row(size() - 1)));
+
+        return new LocalDate[]{earliest, latest};
+    }
+
+
+    /**
+     *
+     * @return The Average amount spent on a transaction.
+     */
+    public double getAverageTransactionAmount() {
+        return statistics().getMean();
+    }
+
+
+    /**
+     * Calculates the average amount spent per day from the date range that has transactions only.
+     *
+     * @return The average amount spent per day.
+     * @see this#getBalance()
+     * @see this#getDaysSize()
+     */
+    public double getAverageDay() {
+        if (this.size() == 0) {
+            return 0;
+        }
+
+        return getBalance() / getDaysSize();
+    }
+
+
+    /**
+     * Acquires the average money spent, or projected to be spent, in a week.
+     *
+     * @return The average amount spent per week.
+     * @see this#getAverageDay()
+     */
+    public double getAverageWeek() {
+        return getAverageDay() * 7;
+    }
+
+
+    /**
+     * Acquires the average of all transactions between date 1 and date, inclusive.
+     * Unlike method getAverageDay(), Even if there exists no transactions on a certain day, the average
+     * still accounts for it.
+     * <p>
+     * For example, say the date range is from Dec 01, 2015 -> Dec 17, 2015. You have not made any transactions
+     * since December 15, 2015. The average will still account for 18 days, not 16. Take a look at the method
+     * getAverageDay() if you are looking for the average of those days with transactions only.
+     *
+     * @param date1 The earliest date of transactions to collect
+     * @param date2 The latest date of transactions to collect.
+     * @return The average amount spent between date1 and date2.
+     * @see this#getTransactionsFrom(String, String)
+     */
+    public double getAverageFrom(String date1, String date2) {
+        return getAverageFrom(LocalDate.parse(date1, STATEMENT_DATE), LocalDate.parse(date2, STATEMENT_DATE));
+    }
+
+
+    /**
+     * Acquires the average of all transactions between date 1 and date, inclusive, accounting for every
+     * day of the range whether or not it has transactions.
+     *
+     * @param date1 The earliest date of transactions to collect
+     * @param date2 The latest date of transactions to collect.
+     * @return The average amount spent between date1 and date2.
+     * @see this#getAverageFrom(String, String)
+     */
+    public double getAverageFrom(LocalDate date1, LocalDate date2) {
+        long days = ChronoUnit.DAYS.between(date1, date2);
+
+        return getBalance(date1, date2) / (days + 1);
+    }
+
+
+    /**
+     * Computes the statistics of all transactions from date1 up till date2 (inclusive) from the per-day
+     * totals of the pool, without visiting any transaction. The extremes of the amounts are left unknown.
+     *
+     * @param date1 The beginning date.
+     * @param date2 The (inclusive) ending date.
+     *
+     * @return The TransactionStatistics of the transactions between the dates.
+     */
+    public TransactionStatistics getStatistics(LocalDate date1, LocalDate date2) {
+        DailyIndex index = dailyIndex();
+        int from = index.indexOf((int) date1.toEpochDay());
+        int to = Math.max(from, index.indexOf((int) date2.toEpochDay() + 1));
+
+        return index.statistics(from, to);
+    }
+
+
+    /**
+     * Computes the statistics of several windows of dates with a single sweep over the pool. The windows are
+     * visited in order of their beginning dates while the pool is walked from the earliest transaction of the
+     * earliest window up, and every transaction is accounted for in each window it falls within. Windows may
+     * overlap, and are returned in the order they are provided.
+     *
+     * @param windows The windows, each an array of the beginning and (inclusive) ending dates.
+     *
+     * @return The WindowStatistics of every window.
+     */
+    public List<WindowStatistics> getStatistics(List<LocalDate[]> windows) {
+        int count = windows.size();
+        List<WindowStatistics> results = new ArrayList<>(count);
+        int[] starts = new int[count], ends = new int[count];
+        int earliest = Integer.MAX_VALUE, latest = Integer.MIN_VALUE;
+
+        // sort keys hold the beginning day in the high bits and the window index in the low bits.
+        long[] order = new long[count];
+        for (int w = 0; w < count; w++) {
+            LocalDate[] window = windows.get(w);
+            results.add(new WindowStatistics(window[0], window[1]));
+
+            starts[w] = (int) window[0].toEpochDay();
+            ends[w] = (int) window[1].toEpochDay();
+            order[w] = ((long) starts[w] << 32) | w;
+            earliest = Math.min(earliest, starts[w]);
+            latest = Math.max(latest, ends[w]);
+        }
+        Arrays.sort(order);
+
+        int[] active = new int[count];
+        int activeCount = 0, next = 0;
+
+        for (int i = count == 0 ? -1 : indexOfFirstNotAfter(earliest - 1) - 1; i >= 0; i--) {
+            int row = row(i), day = store.day(row);
+            if (day > latest) {
+                break;
+            }
+
+            while (next < count && starts[(int) order[next]] <= day) {
+                active[activeCount++] = (int) order[next++];
+            }
+
+            int kept = 0;
+            for (int a = 0; a < activeCount; a++) {
+                if (ends[active[a]] >= day) {
+                    active[kept++] = active[a];
+                    results.get(active[a]).add(day, store.amount(row));
+                }
+            }
+            activeCount = kept;
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Computes the balance of all transactions from date1 up till date2 (inclusive).
+     *
+     * @param date1 The beginning date.
+     * @param date2 The (inclusive) ending date.
+     *
+     * @return The total amount between the dates.
+     * @see this#getStatistics(LocalDate, LocalDate)
+     */
+    public double getBalance(LocalDate date1, LocalDate date2) {
+        return getStatistics(date1, date2).getSum();
+    }
+
+
+    /**
+     * Counts the transactions from date1 up till date2 (inclusive).
+     *
+     * @param date1 The beginning date.
+     * @param date2 The (inclusive) ending date.
+     *
+     * @return The number of transactions between the dates.
+     * @see this#getStatistics(LocalDate, LocalDate)
+     */
+    public long getTransactionCount(LocalDate date1, LocalDate date2) {
+        return getStatistics(date1, date2).getCount();
+    }
+
+
+    /**
+     * Computes the standard deviation of the amounts of the transactions from date1 up till date2 (inclusive).
+     *
+     * @param date1 The beginning date.
+     * @param date2 The (inclusive) ending date.
+     *
+     * @return The Standard Deviation.
+     * @see this#getStatistics(LocalDate, LocalDate)
+     */
+    public double getStandardDeviation(LocalDate date1, LocalDate date2) {
+        return getStatistics(date1, date2).getStandardDeviation();
+    }
+
+
+    /**
+     * Calculates the average amount spent per day between date1 and date2 (inclusive), over the days from
+     * the earliest to the latest transaction of the range only, as getAverageDay() does for the whole pool.
+     *
+     * @param date1 The beginning date.
+     * @param date2 The (inclusive) ending date.
+     *
+     * @return The average amount spent per day.
+     * @see this#getAverageDay()
+     */
+    public double getAverageDay(LocalDate date1, LocalDate date2) {
+        DailyIndex index = dailyIndex();
+        int from = index.indexOf((int) date1.toEpochDay());
+        int to = index.indexOf((int) date2.toEpochDay() + 1);
+
+        if (from >= to) {
+            return 0;
+        }
+
+        return index.statistics(from, to).getSum() / (index.day(to - 1) - index.day(from) + 1);
+    }
+
+
+    /**
+     * Groups the transactions by the provided keys, computing the statistics of every group in a single
+     * pass over the pool. For example, groupBy(GroupKey.DESCRIPTION, GroupKey.MONTH) gives the spending on
+     * every merchant in every month.
+     *
+     * @param keys The keys to group the transactions by.
+     *
+     * @return The TransactionGroup of every distinct combination of values of the keys, in order of their
+     *         first transaction in the pool.
+     */
+    public List<TransactionGroup> groupBy(GroupKey... keys) {
+        GroupAggregator aggregator = new GroupAggregator(keys.clone());
+
+        for (int i = 0; i < size(); i++) {
+            aggregator.add(store, row(i));
+        }
+
+        return aggregator.getGroups();
+    }
+
+
+    /**
+     * Starts a query over the pool. The criteria of the query are all tested in a single pass over the
+     * transactions in the date range of the query, which is binary searched first.
+     *
+     * @return An empty TransactionQuery over the pool.
+     * @see TransactionQuery
+     */
+    public TransactionQuery query() {
+        return new TransactionQuery(this);
+    }
+
+
+    /**
+     * Collects the transactions matching the query. Unless the amount index picks the candidates, the result
+     * is a filtered view over the date range of the query, which is evaluated when it is first read.
+     *
+     * @param query The query.
+     *
+     * @return The TransactionPool view of the matching transactions.
+     */
+    TransactionPool collect(TransactionQuery query) {
+        RowFilter filter = compile(query);
+        int start = search(query.toDay);
+        int end = query.fromDay == Integer.MIN_VALUE ? end() : Math.max(start, search(query.fromDay - 1));
+
+        int[] candidates = candidates(query, start, end);
+        if (candidates == null) {
+            return new TransactionPool(this, rows, start, end, filter);
+        }
+
+        int count = 0;
+        for (int position : candidates) {
+            if (filter.test(store, at(position))) {
+                candidates[count++] = at(position);
+            }
+        }
+
+        return new TransactionPool(this, Arrays.copyOf(candidates, count), 0, count, null);
+    }
+
+
+    /**
+     * Hands every row matching the query to the action, in pool order.
+     *
+     * @param query  The query.
+     * @param action The action applied to the matching rows.
+     */
+    void forEachRow(TransactionQuery query, ObjIntConsumer<TransactionStore> action) {
+        RowFilter filter = compile(query);
+        int start = search(query.toDay);
+        int end = query.fromDay == Integer.MIN_VALUE ? end() : Math.max(start, search(query.fromDay - 1));
+
+        int[] candidates = candidates(query, start, end);
+        if (candidates != null) {
+            for (int position : candidates) {
+                if (filter.test(store, at(position))) {
+                    action.accept(store, at(position));
+                }
+            }
+
+            return;
+        }
+
+        for (int position = start; position < end; position++) {
+            int row = at(position);
+            if (filter.test(store, row)) {
+                action.accept(store, row);
+            }
+        }
+    }
+
+
+    /**
+     * Fuses the criteria of the query, other than its date range, into a single filter. Descriptions are
+     * matched once each through the description index, leaving a bit lookup per row. A pending filter of
+     * the pool is folded in as well.
+     *
+     * @param query The query.
+     *
+     * @return The row filter.
+     */
+    private RowFilter compile(TransactionQuery query) {
+        long least = query.leastCents, highest = query.highestCents;
+        boolean anyStatus = query.authorized == null;
+        boolean authorized = !anyStatus && query.authorized;
+
+        BitSet matches = null;
+        for (int k = 0; k < query.keywords.size(); k++) {
+            BitSet keywordMatches = describedBy(query.keywords.get(k), query.contains.get(k));
+            if (matches == null) {
+                matches = keywordMatches;
+            } else {
+                matches.and(keywordMatches);
+            }
+        }
+
+        BitSet descriptions = matches;
+        RowFilter criteria = (store, row) -> {
+            long amount = store.amount(row);
+
+            return amount >= least && amount <= highest && (anyStatus || store.isAuthorized(row) == authorized)
+                    && (descriptions == null || descriptions.get(store.description(row)));
+        };
+
+        return filter == null ? criteria : filter.and(criteria);
+    }
+
+
+    /**
+     * Picks the candidate positions of a query from the amount index, if the pool has one and the amount
+     * range of the query holds fewer transactions than its date range.
+     *
+     * @param query The query.
+     * @param start The first position of the date range of the query.
+     * @param end   The (exclusive) last position of the date range of the query.
+     *
+     * @return The candidate positions in [start, end), in order, or null if the date range is to be scanned.
+     */
+    private int[] candidates(TransactionQuery query, int start, int end) {
+        long least = query.leastCents, highest = query.highestCents;
+        if (amountIndex == null || (least == Long.MIN_VALUE && highest == Long.MAX_VALUE)) {
+            return null;
+        }
+
+        int low = amountIndex.search(amount -> amount >= least);
+        int high = Math.max(low, amountIndex.search(amount -> amount > highest));
+        if (high - low >= end - start) {
+            return null;
+        }
+
+        int[] positions = new int[high - low];
+        int count = 0;
+        for (int rank = low; rank < high; rank++) {
+            int position = from + amountIndex.get(rank);
+            if (position >= start && position < end) {
+                positions[count++] = position;
+            }
+        }
+
+        Arrays.sort(positions, 0, count);
+        return Arrays.copyOf(positions, count);
+    }
+
+
+    /**
+     * Acquires the per-day totals of the pool, building them with a single pass if needed.
+     *
+     * @return The DailyIndex of the pool.
+     */
+    private DailyIndex dailyIndex() {
+        if (dailyIndex == null) {
+            DailyIndex index = new DailyIndex((int) Math.min(getDaysSize(), size()));
+
+            // the pool holds the latest transaction first, and the index is built from the earliest day up.
+            for (int i = size() - 1; i >= 0; i--) {
+                index.append(store.day(row(i)), store.amount(row(i)));
+            }
+
+            dailyIndex = index;
+        }
+
+        return dailyIndex;
+    }
+
+
+    /**
+     * Acquires all transactions that revolve around a specified keyword.
+     *
+     * If startWith is set to true, all transactions that startWith the keyword are acquired.
+     * However, if startWith is false then only the transactions that are equal (not case sensitive)
+     * to the keyword are acquired.
+     *
+     * @param keyword The keyword used to select transactions
+     * @param contains whether the transaction's description should be equal or startWith the keyword.
+     *
+     * @return The TransactionPool object of the transactions.
+     */
+    public TransactionPool getTransactionsByDescription(String keyword, boolean contains) {
+        BitSet matches = describedBy(keyword, contains);
 
+        return filter((store, row) -> matches.get(store.description(row)));
     }
 
 
     /**
-     * Constructs a new TransactionPool object, and transfers all elements in the ArrayList to the object.
+     * Finds the descriptions matching the keyword, in the way getTransactionsByDescription does.
      *
-     * @param transactions The ArrayList with elements to be appended to the object.
+     * @param keyword  The keyword used to select descriptions.
+     * @param contains whether the description should be equal or contain the keyword.
+     *
+     * @return The BitSet of the matching description ids.
      */
-    public TransactionPool(ArrayList<Transaction> transactions) {
-        this.addAll(transactions);
+    private BitSet describedBy(String keyword, boolean contains) {
+        DescriptionDictionary dictionary = store.getDictionary();
+
+        return matchDescriptions(contains ? dictionary.search(keyword) : dictionary.lookup(keyword),
+                description -> description.equalsIgnoreCase(keyword) || (contains && description.contains(keyword)));
     }
 
 
     /**
-     * Override is necessary to assure that every time this method is called, the list remains
-     * sorted.
+     * Removes all transactions that contain the specified keyword.
      *
-     * @param transaction The transaction being appended to the list.
+     * @param keyword The keyword which is used to find the matching transactions by comparing their descriptions.
      *
-     * @return True always as this method calls add(index, E e) that is void.
+     * @return  the status of the removal.
      */
-    @Override
-    public boolean add(Transaction transaction) {
-        int i = 0;
-
-        while (i < this.size() && this.get(i).getDate().isAfter(transaction.getDate())) {
-            i++;
-        }
-
-        add(i, transaction);
+    public boolean removeTransactionsByKeyword(String keyword) {
+        final String key = keyword.toLowerCase();
+        BitSet matches = matchDescriptions(store.getDictionary().search(keyword),
+                description -> description.toLowerCase().contains(key));
 
-        return true;
+        return !matches.isEmpty() && removeRows((store, row) -> matches.get(store.description(row)));
     }
 
 
     /**
-     * Overriding this add method as well to ensure that the list is always sorted.
+     * Removes all transactions that are equivalent to the transaction argument.
+     *
+     * @param transaction The transaction that is used as the comporator for targets.
+     * @return  the status of the removal.
      *
-     * @param i The position in the pool where the transaction element is to be placed.
-     * @param transaction The transaction element being inserted into the pool.
      */
-    @Override
-    public void add(int i, Transaction transaction) {
-        super.add(i, transaction);
-        updateFrequency(transaction);
+    public boolean removeTransactionsByEquivalence(Transaction transaction) {
+        return removeRows(equivalentTo(transaction));
     }
 
+    /**
+     * Computes and gathers all transactions that are equal to the provided transaction object. In other words,
+     * all transactions that have the same description and amount.
+     *
+     * @param transaction The Transaction used to find other equal transactions
+     *
+     * @return A TransactionPool object for all the transactions.
+     * @see Transaction#equals(Object)
+     */
+    public TransactionPool getTransactionsEqualTo(Transaction transaction) {
+        return filter(equivalentTo(transaction));
+    }
 
 
     /**
-     * Override is necessary to assure that every time this method is called, the list remains
-     * sorted. Every single element in the collection is tested and its ideal place in the
-     * transactions list is found, appending it to that index.
-     *
-     * @param transactions The transactions collection being appended to the list.
+     * Acquires the most expensive transaction in the list.
      *
-     * @return True always as this method calls add(index, E e) that is void.
+     * @return The Transaction object.
      */
-    @Override
-    public boolean addAll(Collection<? extends Transaction> transactions) {
-        for (Transaction transaction : transactions) {
-            add(transaction);
+    public Transaction getMostExpensive() {
+        if (this.size() == 0) {
+            return null;
         }
 
-        return true;
+        return store.get(row(mostExpensive()));
     }
 
 
     /**
-     * Acquires all transactions that are of type debit. A Debit transaction is usually a payment
-     * induced by the customer to pay off previous credit transactions.
+     * Acquires the least expensive transaction in the list.
      *
-     * @return The TransactionPool of the debit transactions.
+     * @return The Transaction object.
      */
-    public TransactionPool getDebitTransactions() {
-        TransactionPool pool = new TransactionPool();
-
-        for (Transaction transaction : this) {
-            if (transaction.getAmount() < 0) {
-                pool.add(transaction);
-            }
+    public Transaction getLeastExpensive() {
+        if (this.size() == 0) {
+            return null;
         }
 
-        return pool;
+        return store.get(row(leastExpensive()));
     }
 
+
     /**
-     * Acquires all transactions that are of type credit. A Credit transaction is usually a credit
-     * usage of the credit card.
+     * Computes the standard deviation of the transactions' amount.
+     * The Standard Deviation indicates how spread out and random the data (every transaction's amount) are in
+     * this pool compared to the average value.
      *
-     * @return The TransactionPool of the credit transactions.
+     * @return The Standard Deviation.
+     * @see TransactionStatistics#getStandardDeviation()
      */
-    public TransactionPool getCreditTransactions() {
-        TransactionPool pool = new TransactionPool();
+    public double getStandardDeviation() {
+        return statistics().getStandardDeviation();
+    }
 
-        for (Transaction transaction : this) {
-            if (transaction.getAmount() >= 0) {
-                pool.add(transaction);
-            }
+
+    /**
+     * Acquires the running statistics of the pool, computing them with a reduction over the pool if needed.
+     * The ranges of the reduction are merged in the same order in both modes, so the floating-point results
+     * do not depend on the mode.
+     *
+     * @return The TransactionStatistics of the pool.
+     */
+    private TransactionStatistics statistics() {
+        if (statistics == null) {
+            statistics = RangeReduction.reduce(size(), parallel, (from, to) -> {
+                TransactionStatistics range = new TransactionStatistics();
+                for (int i = from; i < to; i++) {
+                    range.add(store.amount(row(i)));
+                }
+
+                return range;
+            }, (left, right) -> {
+                left.merge(right);
+                return left;
+            });
+
+            mostExpensive = leastExpensive = -1;
         }
 
-        return pool;
+        return statistics;
     }
 
 
     /**
-     * Computes the Current outstanding balance of this transaction Pool.
+     * Acquires the index of the most expensive transaction, the last one in the pool on ties. The pool
+     * must not be empty.
      *
-     * @return The Total Amount
+     * @return The index of the transaction.
      */
-    public double getBalance() {
-        double amount = 0;
+    private int mostExpensive() {
+        if (statistics == null || mostExpensive < 0) {
+            statistics();
+            mostExpensive = 0;
+
+            // entries tied on amount are ordered by index, so the last entry is the last of the most expensive.
+            if (amountIndex != null) {
+                return mostExpensive = amountIndex.get(amountIndex.size() - 1);
+            }
 
-        for (Transaction transaction : this) {
-            amount += transaction.getAmount();
+            mostExpensive = extreme(1);
         }
 
-        return amount;
+        return mostExpensive;
     }
 
 
     /**
-     * A method that tests if date1 is after or equal to date2.
+     * Acquires the index of the least expensive transaction, the last one in the pool on ties. The pool
+     * must not be empty.
      *
-     * @param date1 The Date to be tested
-     * @param date2 The Date that is being tested on.
-     * @return true     if date1 is after or equal to date2
-     * false    otherwise.
+     * @return The index of the transaction.
      */
-    private boolean isAfterOrEqual(LocalDate date1, LocalDate date2) {
-        return date1.isAfter(date2) || date1.isEqual(date2);
+    private int leastExpensive() {
+        if (statistics == null || leastExpensive < 0) {
+            statistics();
+            leastExpensive = 0;
+
+            if (amountIndex != null) {
+                long least = store.amount(row(amountIndex.get(0)));
+                return leastExpensive = amountIndex.get(amountIndex.search(amount -> amount > least) - 1);
+            }
+
+            leastExpensive = extreme(-1);
+        }
+
+        return leastExpensive;
     }
 
 
     /**
-     * A method that tests if date1 is before or equal to date2.
+     * Finds the index of an extreme amount with a reduction over the pool, the last one in the pool on ties.
+     * The pool must not be empty.
      *
-     * @param date1 The Date to be tested
-     * @param date2 The Date that is being tested on.
-     * @return true     if date1 is before or equal to date2
-     * false    otherwise.
+     * @param sign 1 for the largest amount, -1 for the smallest one.
+     *
+     * @return The index of the transaction.
      */
-    private boolean isBeforeOrEqual(LocalDate date1, LocalDate date2) {
-        return date1.isBefore(date2) || date1.isEqual(date2);
+    private int extreme(int sign) {
+        return RangeReduction.reduce(size(), parallel, (from, to) -> {
+            int extreme = from;
+            for (int i = from; i < to; i++) {
+                if (sign * Long.compare(store.amount(row(i)), store.amount(row(extreme))) >= 0) {
+                    extreme = i;
+                }
+            }
+
+            return extreme;
+        }, (left, right) -> sign * Long.compare(store.amount(row(right)), store.amount(row(left))) >= 0 ? right : left);
     }
 
 
     /**
-     * Acquires all transactions from date1 up till date2 (inclusive).
+     * Acquires the frequency index of the pool, building it with a single pass over the pool on first use.
      *
-     * @param date1 The beginning date.
-     * @param date2 The (exclusive) ending date.
-     * @return The TransactionPool object of all transactions between the required dates.
-     * @see this#isAfterOrEqual(LocalDate, LocalDate)
-     * @see this#isBeforeOrEqual(LocalDate, LocalDate)
+     * In parallel mode, the occurrences are counted with a reduction instead, which also keeps the index of
+     * the last occurrence of every transaction. Filing the transactions in order of their last occurrence
+     * orders the ties exactly as the single pass does.
+     *
+     * @return The TransactionFrequencies of the pool.
      */
-    public TransactionPool getTransactionsFrom(String date1, String date2) {
-        LocalDate date3 = LocalDate.parse(date1, DateTimeFormatter.ofPattern("MMM dd, yyyy"));
-        LocalDate date4 = LocalDate.parse(date2, DateTimeFormatter.ofPattern("MMM dd, yyyy"));
-        TransactionPool pool = new TransactionPool();
+    private TransactionFrequencies getFrequencies() {
+        if (frequencies == null && frequencyCapacity > 0) {
+            frequencies = new ApproximateFrequencies(frequencyCapacity);
 
-        for (Transaction transaction : this) {
-            LocalDate date = transaction.getDate();
+            for (int i = 0; i < size(); i++) {
+                frequencies.increment(store.get(row(i)));
+            }
+        } else if (frequencies == null && parallel && size() >= RangeReduction.PARALLEL_THRESHOLD) {
+            Map<Transaction, int[]> counts = RangeReduction.reduce(size(), true, (from, to) -> {
+                Map<Transaction, int[]> range = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    int[] count = range.computeIfAbsent(store.get(row(i)), t -> new int[2]);
+                    count[0]++;
+                    count[1] = i;
+                }
+
+                return range;
+            }, (left, right) -> {
+                right.forEach((transaction, count) -> left.merge(transaction, count, (a, b) -> {
+                    a[0] += b[0];
+                    a[1] = b[1];
+                    return a;
+                }));
+
+                return left;
+            });
+
+            List<Map.Entry<Transaction, int[]>> entries = new ArrayList<>(counts.entrySet());
+            entries.sort((a, b) -> Integer.compare(a.getValue()[1], b.getValue()[1]));
+
+            frequencies = new TransactionFrequencies();
+            for (Map.Entry<Transaction, int[]> entry : entries) {
+                frequencies.put(entry.getKey(), entry.getValue()[0]);
+            }
+        } else if (frequencies == null) {
+            frequencies = new TransactionFrequencies();
 
-            if (isAfterOrEqual(date, date3) && isBeforeOrEqual(date, date4)) {
-                pool.add(transaction);
+            for (int i = 0; i < size(); i++) {
+                frequencies.increment(store.get(row(i)));
             }
         }
 
-        return pool;
+        return frequencies;
     }
 
 
     /**
-     * Acquires all transactions between the minimum and maximum amount range.
+     * Looks up the transaction in the frequency index of the pool.
      *
-     * @param leastAmount The minimum amount a transaction must be to be collected.
-     * @param highestAmount The maximum amount a transaction must be to be collected.
+     * @param transaction The transaction.
      *
-     * @return The TransactionPool object of the transactions list.
+     * @return The amount of times an equal transaction is present in this pool. If the frequencies are
+     *         tracked with a bounded capacity, 0 for a transaction that is not tracked.
+     * @see Transaction#equals(Object)
      */
-    public TransactionPool getTransactionsFrom(double leastAmount, double highestAmount) {
-        TransactionPool pool = new TransactionPool();
-        for (Transaction transaction : this) {
-            double amount = transaction.getAmount();
-
-            if (amount >= leastAmount && amount <= highestAmount) {
-                pool.add(transaction);
-            }
-        }
-
-        return pool;
+    public int getFrequency(Transaction transaction) {
+        return getFrequencies().getFrequency(transaction);
     }
 
 
     /**
-     * Acquires the days between the earliest date and latest date found in the transactions.
-     * Please note this method has been programmed with a precondition that the list of transactions
-     * is sorted at all times. The very first element in the array (index = 0) is the latest, and the last
-     * element is the earliest transaction found.
      *
-     * @return The amount of days between the earliest and latest dates, including both dates which
-     * is why + 1 has been added to the return statement.
+     * @return The most that any frequency of the pool may overestimate the actual number of occurrences,
+     *         always 0 when the frequencies are tracked exactly.
+     * @see this#setFrequencyCapacity(int)
      */
-    public long getDaysSize() {
-        if (this.size() == 0) {
-            return 0;
-        }
-
-        LocalDate latest = this.get(0).getDate();
-        LocalDate earliest = this.get(this.size() - 1).getDate();
-
-        return ChronoUnit.DAYS.between(earliest, latest) + 1;
+    public int getFrequencyErrorBound() {
+        return getFrequencies().getErrorBound();
     }
 
 
     /**
-     * Acquires the latest and earliest dates found in the statement, and returns an array of length
-     * 2 elements that contains the earliest and latest LocalDate Objects respectively.
+     * Acquires the transaction that holds the most amount of recurrences from the frequency index.
      *
-     * @return The LocalDate[] of the LocalDates.
+     * @return The Transaction that is the most common in this TransactionPool instance.
      */
-    public LocalDate[] getDateRange() {
+    public Transaction getMostCommonTransaction() {
         if (this.size() == 0) {
             return null;
         }
 
-        LocalDate latest = this.get(0).getDate();
-        LocalDate earliest = this.get(this.size() - 1).getDate();
-
-        return new LocalDate[]{earliest, latest};
+        return getFrequencies().getMostCommon();
     }
 
 
     /**
+     * Acquires the k transactions that hold the most amount of recurrences, most common first.
      *
-     * @return The Average amount spent on a transaction.
+     * @param k The number of transactions to acquire.
+     *
+     * @return The list of up to k TransactionFrequency objects.
      */
-    public double getAverageTransactionAmount() {
-        if (this.size() == 0) {
-            return 0;
-        }
-
-        return getBalance() / this.size();
+    public List<TransactionFrequency> getMostCommonTransactions(int k) {
+        return getFrequencies().getMostCommon(k);
     }
 
 
     /**
-     * Calculates the average amount spent per day from the date range that has transactions only.
+     * Creates a view of the transactions that pass the filter. Nothing is evaluated until the view is first
+     * read; filtering a view that has not been read yet combines both filters into a single one.
      *
-     * @return The average amount spent per day.
-     * @see this#getBalance()
-     * @see this#getDaysSize()
+     * @param filter The filter tested against every row.
+     *
+     * @return The TransactionPool view of the passing transactions.
      */
-    public double getAverageDay() {
-        if (this.size() == 0) {
-            return 0;
-        }
+    private TransactionPool filter(RowFilter filter) {
+        RowFilter combined = this.filter == null ? filter : this.filter.and(filter);
 
-        return getBalance() / getDaysSize();
+        return new TransactionPool(this, rows, from, end(), combined);
     }
 
 
     /**
-     * Acquires the average money spent, or projected to be spent, in a week.
+     * Removes every row that passes the filter in a single compacting pass.
      *
-     * @return The average amount spent per week.
-     * @see this#getAverageDay()
+     * @param filter The filter tested against every row.
+     *
+     * @return True if any row has been removed.
      */
-    public double getAverageWeek() {
-        return getAverageDay() * 7;
-    }
+    private boolean removeRows(RowFilter filter) {
+        prepareForMutation();
 
+        BitSet removed = new BitSet(size());
+        for (int row : select(filter)) {
+            removed.set(row);
+        }
 
-    /**
-     * Acquires the average of all transactions between date 1 and date, inclusive.
-     * Unlike method getAverageDay(), Even if there exists no transactions on a certain day, the average
-     * still accounts for it.
-     * <p>
-     * For example, say the date range is from Dec 01, 2015 -> Dec 17, 2015. You have not made any transactions
-     * since December 15, 2015. The average will still account for 18 days, not 16. Take a look at the method
-     * getAverageDay() if you are looking for the average of those days with transactions only.
-     *
-     * @param date1 The earliest date of transactions to collect
-     * @param date2 The latest date of transactions to collect.
-     * @return The average amount spent between date1 and date2.
-     * @see this#getTransactionsFrom(String, String)
-     */
-    public double getAverageFrom(String date1, String date2) {
-        TransactionPool pool = getTransactionsFrom(date1, date2);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
-        long days = ChronoUnit.DAYS.between(LocalDate.parse(date1, formatter), LocalDate.parse(date2, formatter));
+        if (removed.isEmpty()) {
+            return false;
+        }
+
+        if (frequencies != null) {
+            for (int row = removed.nextSetBit(0); row >= 0; row = removed.nextSetBit(row + 1)) {
+                frequencies.decrement(store.get(row));
+            }
+        }
+
+        if (statistics != null) {
+            for (int row = removed.nextSetBit(0); row >= 0; row = removed.nextSetBit(row + 1)) {
+                statistics.remove(store.amount(row));
+            }
+
+            mostExpensive = leastExpensive = -1;
+        }
+
+        for (int row = removed.nextSetBit(0); row >= 0; row = removed.nextSetBit(row + 1)) {
+            rowRemoved(store.day(row), store.amount(row));
+        }
 
-        return pool.getBalance() / (days + 1);
+        store.removeAll(removed);
+        modCount++;
+        dailyIndex = null;
+        amountIndex = null;
+        sketch = null;
+        return true;
     }
 
 
     /**
-     * Acquires all transactions that revolve around a specified keyword.
-     *
-     * If startWith is set to true, all transactions that startWith the keyword are acquired.
-     * However, if startWith is false then only the transactions that are equal (not case sensitive)
-     * to the keyword are acquired.
+     * Tests the matcher against the candidate descriptions looked up in the description index, once per
+     * description rather than once per row.
      *
-     * @param keyword The keyword used to select transactions
-     * @param contains whether the transaction's description should be equal or startWith the keyword.
+     * @param candidates The ids of the candidate descriptions.
+     * @param matcher    The test applied to a description.
      *
-     * @return The TransactionPool object of the transactions.
+     * @return The BitSet of the matching description ids.
      */
-    public TransactionPool getTransactionsByDescription(String keyword, boolean contains) {
-        TransactionPool pool = new TransactionPool();
-        for (Transaction transaction : this) {
-            if (transaction.getDescription().equalsIgnoreCase(keyword)
-                    || (contains && transaction.getDescription().contains(keyword))) {
-                pool.add(transaction);
+    private BitSet matchDescriptions(int[] candidates, Predicate<String> matcher) {
+        DescriptionDictionary dictionary = store.getDictionary();
+        BitSet matches = new BitSet(dictionary.size());
+
+        for (int id : candidates) {
+            if (matcher.test(dictionary.get(id))) {
+                matches.set(id);
             }
         }
 
-        return pool;
+        return matches;
     }
 
 
     /**
-     * Removes all transactions that contain the specified keyword.
+     * Builds a filter that passes the rows equal to the transaction.
      *
-     * @param keyword The keyword which is used to find the matching transactions by comparing their descriptions.
+     * @param transaction The transaction being compared against.
      *
-     * @return  the status of the removal.
+     * @return The row filter.
+     * @see Transaction#equals(Object)
      */
-    public boolean removeTransactionsByKeyword(String keyword) {
-        final String key = keyword.toLowerCase();
-        Object[] removables = this.stream().filter(a -> a.getDescription().toLowerCase().contains(key)).toArray();
-        return this.removeAll(Arrays.asList(removables));
+    private RowFilter equivalentTo(Transaction transaction) {
+        long amount = transaction.getAmountCents();
+        // -1 if no row of the store holds the description, which then matches no row.
+        int description = store.getDictionary().indexOf(transaction.getDescription());
+
+        return (store, row) -> store.amount(row) == amount && store.isAuthorized(row) == transaction.isAuthorized()
+                && store.description(row) == description;
     }
 
 
     /**
-     * Removes all transactions that are equivalent to the transaction argument.
+     * Binary searches the pool for the first transaction that does not come after the provided day.
+     * Please note this method relies on the pool being sorted with the latest transaction first.
      *
-     * @param transaction The transaction that is used as the comporator for targets.
-     * @return  the status of the removal.
+     * @param day The epoch day being searched for.
      *
+     * @return The index of the first transaction dated on or before the day, or the size of the pool
+     *         if every transaction comes after it.
      */
-    public boolean removeTransactionsByEquivalence(Transaction transaction) {
-        Object[] removables = this.stream().filter(a -> a.equals(transaction)).toArray();
-        return this.removeAll(Arrays.asList(removables));
+    private int indexOfFirstNotAfter(int day) {
+        resolve();
+        return search(day) - from;
     }
 
+
     /**
-     * Computes and gathers all transactions that are equal to the provided transaction object. In other words,
-     * all transactions that have the same description and amount.
+     * Binary searches the positions [from, to) for the first row that does not come after the provided day,
+     * without evaluating any pending filter. A filter never breaks the date order, so the position found
+     * also bounds the filtered rows.
      *
-     * @param transaction The Transaction used to find other equal transactions
+     * @param day The epoch day being searched for.
      *
-     * @return A TransactionPool object for all the transactions.
-     * @see Transaction#equals(Object)
+     * @return The position of the first row dated on or before the day, or the end position if every row
+     *         comes after it.
      */
-    public TransactionPool getTransactionsEqualTo(Transaction transaction) {
-        TransactionPool pool = new TransactionPool();
-        for (Transaction tran : this) {
-            if (tran.equals(transaction)) {
-                pool.add(tran);
+    private int search(int day) {
+        int low = from, high = end();
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (store.day(at(middle)) > day) {
+                low = middle + 1;
+            } else {
+                high = middle;
             }
         }
 
-        return pool;
+        return low;
     }
 
 
     /**
-     * Acquires the most expensive transaction in the list.
+     * Maps an index of the pool onto its row in the store. The view must have been resolved.
      *
-     * @return The Transaction object.
+     * @param i The index of a transaction in the pool.
+     *
+     * @return The row index in the store.
      */
-    public Transaction getMostExpensive() {
-        if (this.size() == 0) {
-            return null;
-        }
-
-        Transaction mostExpensive = this.get(0);
+    private int row(int i) {
+        return at(from + i);
+    }
 
-        for (Transaction transaction : this) {
-            if (transaction.getAmount() >= mostExpensive.getAmount()) {
-                mostExpensive = transaction;
-            }
-        }
 
-        return mostExpensive;
+    /**
+     * Maps a position onto its row in the store.
+     *
+     * @param position A position in [from, to).
+     *
+     * @return The row index in the store.
+     */
+    private int at(int position) {
+        return rows == null ? position : rows[position];
     }
 
 
     /**
-     * Acquires the least expensive transaction in the list.
      *
-     * @return The Transaction object.
+     * @return The exclusive end position of the pool.
      */
-    public Transaction getLeastExpensive() {
-        if (this.size() == 0) {
-            return null;
-        }
+    private int end() {
+        return view ? to : store.size();
+    }
 
-        Transaction leastExpensive = this.get(0);
 
-        for (Transaction transaction : this) {
-            if (transaction.getAmount() <= leastExpensive.getAmount()) {
-                leastExpensive = transaction;
-            }
+    /**
+     * Evaluates the pending filter of the view, if any, collecting the rows that pass it into a row list.
+     */
+    private void resolve() {
+        if (filter == null) {
+            return;
         }
 
-        return leastExpensive;
+        rows = select(filter);
+        from = 0;
+        to = rows.length;
+        filter = null;
     }
 
 
     /**
-     * Computes the standard deviation of the transactions' amount.
-     * The Standard Deviation indicates how spread out and random the data (every transaction's amount) are in
-     * this pool compared to the average value.
+     * Collects the rows at the positions [from, end) that pass the filter, as a reduction over the positions
+     * in parallel mode.
      *
-     * @return The Standard Deviation.
-     * @see this#getAverageTransactionAmount()
+     * @param filter The filter tested against every row.
+     *
+     * @return The passing rows, in order of position.
      */
-    public double getStandardDeviation() {
-        if (this.size() == 0 || this.size() == 1) {
-            return 0;
-        }
+    private int[] select(RowFilter filter) {
+        RangeReduction.Leaf<int[]> leaf = (start, end) -> {
+            int[] passing = new int[end - start];
+            int count = 0;
+
+            for (int position = from + start; position < from + end; position++) {
+                int row = at(position);
+                if (filter.test(store, row)) {
+                    passing[count++] = row;
+                }
+            }
 
-        double weightedSum = 0.0;
-        double averageTransaction = getAverageTransactionAmount();
+            return count == passing.length ? passing : Arrays.copyOf(passing, count);
+        };
 
-        for (Transaction transaction : this) {
-            weightedSum += Math.pow(transaction.getAmount() - averageTransaction, 2);
+        // the selected rows are the same whatever the ranges, so the sequential mode tests them in one range.
+        if (!parallel) {
+            return leaf.apply(0, end() - from);
         }
 
-        return Math.sqrt(weightedSum / (this.size() - 1));
+        return RangeReduction.reduce(end() - from, true, leaf, (left, right) -> {
+            int[] passing = Arrays.copyOf(left, left.length + right.length);
+            System.arraycopy(right, 0, passing, left.length, right.length);
+            return passing;
+        });
     }
 
 
     /**
-     * Updates the recurring transactions HashMap accordingly. If no entry exists for the transaction, one
-     * is created and initialized.
-     *
-     * @param transaction The transaction to be inserted or updated in the recurring transactions HashMap.
+     * Must be called before the store is modified in place. A view is first copied into a store of its own,
+     * and a store that is shared with views is copied so the views keep seeing the transactions they were
+     * created over.
      */
-    private void updateFrequency(Transaction transaction) {
-        for (Transaction transaction2 : frequencies.keySet()) {
-            if (transaction.equals(transaction2)) {
-                frequencies.get(transaction2).increment();
-                return;
+    private void prepareForMutation() {
+        if (view) {
+            TransactionStore copy = new TransactionStore(store.getDictionary(), size());
+            for (int i = 0; i < size(); i++) {
+                copy.append(store, row(i));
             }
-        }
 
-        frequencies.put(transaction, new TransactionFrequency(transaction, 1));
+            own(copy);
+        } else if (store.isShared()) {
+            store = store.copy();
+        }
     }
 
 
     /**
-     * Searches the frequency HashMap for the transaction that holds the most amount of recurrences, that is a public
-     * attribute in the TransactionFrequency Object.
+     * Turns the pool into the owner of the provided store, dropping any view state.
      *
-     * @return The Transaction that is the most common in this TransactionPool instance.
+     * @param store The store now backing the pool.
      */
-    public Transaction getMostCommonTransaction() {
-        if (this.size() == 0) {
-            return null;
-        }
-
-        Transaction mostCommon = frequencies.keySet().iterator().next();
-
-        for (Transaction transaction : frequencies.keySet()) {
+    private void own(TransactionStore store) {
+        this.store = store;
+        this.view = false;
+        this.rows = null;
+        this.from = 0;
+        this.to = 0;
+        this.filter = null;
+    }
 
-            TransactionFrequency freq1 = frequencies.get(transaction);
-            TransactionFrequency freq2 = frequencies.get(mostCommon);
 
-            if (freq1.getFrequency() >= freq2.getFrequency()) {
-                mostCommon = transaction;
-            }
+    /**
+     * Verifies that the index falls within [0, last].
+     *
+     * @param i    The index.
+     * @param last The last valid index.
+     */
+    private void checkIndex(int i, int last) {
+        if (i < 0 || i > last) {
+            throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", i, size()));
         }
-
-        return mostCommon;
     }
 }
@@ -0,0 +1,260 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A query over a TransactionPool, created by TransactionPool#query(). The criteria of the query are only
+ * collected as it is built; nothing is evaluated until one of the terminal methods is called, which
+ * then runs every criterion in a single pass over the pool.
+ *
+ * For example, the credit transactions of December between $5 and $50 at a given merchant are counted with
+ * pool.query().credit().between(dec1, dec31).amountBetween(5, 50).description("SHELL", true).count().
+ *
+ * Calling a criterion twice narrows the query to the intersection of both.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public class TransactionQuery {
+
+    private final TransactionPool pool;
+
+    int fromDay = Integer.MIN_VALUE, toDay = Integer.MAX_VALUE;
+    long leastCents = Long.MIN_VALUE, highestCents = Long.MAX_VALUE;
+    Boolean authorized;
+    final List<String> keywords = new ArrayList<>();
+    final List<Boolean> contains = new ArrayList<>();
+
+
+    /**
+     * Constructor for the TransactionQuery class.
+     *
+     * @param pool The pool being queried.
+     */
+    TransactionQuery(TransactionPool pool) {
+        this.pool = pool;
+    }
+
+
+    /**
+     * Keeps the transactions from date1 up till date2 (inclusive).
+     *
+     * @param date1 The beginning date.
+     * @param date2 The (inclusive) ending date.
+     *
+     * @return This query.
+     */
+    public TransactionQuery between(LocalDate date1, LocalDate date2) {
+        fromDay = Math.max(fromDay, (int) date1.toEpochDay());
+        toDay = Math.min(toDay, (int) date2.toEpochDay());
+        return this;
+    }
+
+
+    /**
+     * Keeps the transactions between the minimum and maximum amount, inclusive.
+     *
+     * @param leastAmount   The minimum amount a transaction must be to be kept.
+     * @param highestAmount The maximum amount a transaction must be to be kept.
+     *
+     * @return This query.
+     */
+    public TransactionQuery amountBetween(double leastAmount, double highestAmount) {
+        // as in TransactionPool#getTransactionsFrom(double, double), no amount is at least NaN or above NaN.
+        if (Double.isNaN(leastAmount) || leastAmount > Long.MAX_VALUE / 100.0
+                || highestAmount < Long.MIN_VALUE / 100.0) {
+            leastCents = Long.MAX_VALUE;
+            highestCents = Long.MIN_VALUE;
+            return this;
+        }
+
+        leastCents = Math.max(leastCents, firstCentsNotBelow(leastAmount));
+        if (!Double.isNaN(highestAmount)) {
+            highestCents = Math.min(highestCents, lastCentsNotAbove(highestAmount));
+        }
+
+        return this;
+    }
+
+
+    /**
+     * Keeps the credit transactions, as TransactionPool#getCreditTransactions() does.
+     *
+     * @return This query.
+     */
+    public TransactionQuery credit() {
+        leastCents = Math.max(leastCents, 0);
+        return this;
+    }
+
+
+    /**
+     * Keeps the debit transactions, as TransactionPool#getDebitTransactions() does.
+     *
+     * @return This query.
+     */
+    public TransactionQuery debit() {
+        highestCents = Math.min(highestCents, -1);
+        return this;
+    }
+
+
+    /**
+     * Keeps the transactions of the provided status.
+     *
+     * @param authorized True for the authorized transactions, false for the posted transactions.
+     *
+     * @return This query.
+     */
+    public TransactionQuery authorized(boolean authorized) {
+        if (this.authorized != null && this.authorized != authorized) {
+            // no transaction can be both, so the query is left empty.
+            fromDay = Integer.MAX_VALUE;
+            toDay = Integer.MIN_VALUE;
+        }
+
+        this.authorized = authorized;
+        return this;
+    }
+
+
+    /**
+     * Keeps the transactions matching the keyword, as TransactionPool#getTransactionsByDescription does.
+     *
+     * @param keyword  The keyword used to select transactions.
+     * @param contains whether the transaction's description should be equal or contain the keyword.
+     *
+     * @return This query.
+     */
+    public TransactionQuery description(String keyword, boolean contains) {
+        this.keywords.add(keyword);
+        this.contains.add(contains);
+        return this;
+    }
+
+
+    /**
+     * Runs the query, collecting the matching transactions.
+     *
+     * @return The TransactionPool view of the matching transactions, in the order they hold in the pool.
+     */
+    public TransactionPool collect() {
+        return pool.collect(this);
+    }
+
+
+    /**
+     * Runs the query, computing the statistics of the matching transactions without collecting them.
+     *
+     * @return The TransactionStatistics of the matching transactions.
+     */
+    public TransactionStatistics getStatistics() {
+        TransactionStatistics statistics = new TransactionStatistics();
+        pool.forEachRow(this, (store, row) -> statistics.add(store.amount(row)));
+
+        return statistics;
+    }
+
+
+    /**
+     * Runs the query, computing the balance of the matching transactions.
+     *
+     * @return The total amount of the matching transactions.
+     */
+    public double getBalance() {
+        return getStatistics().getSum();
+    }
+
+
+    /**
+     * Runs the query, counting the matching transactions.
+     *
+     * @return The number of matching transactions.
+     */
+    public long count() {
+        long[] count = {0};
+        pool.forEachRow(this, (store, row) -> count[0]++);
+
+        return count[0];
+    }
+
+
+    /**
+     * Runs the query, grouping the matching transactions by the provided keys.
+     *
+     * @param keys The keys to group the transactions by.
+     *
+     * @return The TransactionGroup of every distinct combination of values of the keys.
+     * @see TransactionPool#groupBy(GroupKey...)
+     */
+    public List<TransactionGroup> groupBy(GroupKey... keys) {
+        GroupAggregator aggregator = new GroupAggregator(keys.clone());
+        pool.forEachRow(this, aggregator::add);
+
+        return aggregator.getGroups();
+    }
+
+
+    /**
+     * Finds the smallest amount in cents that is not below the amount in dollars, in the way amounts are
+     * compared by TransactionPool#getTransactionsFrom(double, double). The amount must not be NaN or above
+     * the largest amount in cents.
+     */
+    private static long firstCentsNotBelow(double amount) {
+        // bounds beyond the range of cents are clamped, which also keeps the corrections from overflowing.
+        if (amount <= Long.MIN_VALUE / 100.0) {
+            return Long.MIN_VALUE;
+        }
+
+        long cents = (long) Math.ceil(amount * 100);
+        while (cents / 100.0 < amount) {
+            cents++;
+        }
+        while ((cents - 1) / 100.0 >= amount) {
+            cents--;
+        }
+
+        return cents;
+    }
+
+
+    /**
+     * Finds the largest amount in cents that is not above the amount in dollars. The amount must not be NaN
+     * or below the smallest amount in cents.
+     */
+    private static long lastCentsNotAbove(double amount) {
+        if (amount >= Long.MAX_VALUE / 100.0) {
+            return Long.MAX_VALUE;
+        }
+
+        long cents = (long) Math.floor(amount * 100);
+        while (cents / 100.0 > amount) {
+            cents--;
+        }
+        while ((cents + 1) / 100.0 <= amount) {
+            cents++;
+        }
+
+        return cents;
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import com.ccstats.data.Transaction;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+
+/**
+ * Spliterator over a range of indices of a pool. The range is split in halves, and a Transaction is only
+ * created from the backing store as it is handed to the consumer, so every half of a parallel stream reads
+ * the store directly.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+class TransactionSpliterator implements Spliterator<Transaction> {
+
+    private final IntFunction<Transaction> transactions;
+    private int index;
+    private final int end;
+
+
+    /**
+     * Constructor for the TransactionSpliterator class.
+     *
+     * @param transactions Creates the Transaction at an index of the pool.
+     * @param index        The first (inclusive) index.
+     * @param end          The last (exclusive) index.
+     */
+    TransactionSpliterator(IntFunction<Transaction> transactions, int index, int end) {
+        this.transactions = transactions;
+        this.index = index;
+        this.end = end;
+    }
+
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Transaction> action) {
+        if (index >= end) {
+            return false;
+        }
+
+        action.accept(transactions.apply(index++));
+        return true;
+    }
+
+
+    @Override
+    public void forEachRemaining(Consumer<? super Transaction> action) {
+        for (; index < end; index++) {
+            action.accept(transactions.apply(index));
+        }
+    }
+
+
+    @Override
+    public Spliterator<Transaction> trySplit() {
+        int middle = (index + end) >>> 1;
+        if (middle <= index) {
+            return null;
+        }
+
+        Spliterator<Transaction> prefix = new TransactionSpliterator(transactions, index, middle);
+        index = middle;
+
+        return prefix;
+    }
+
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+}
@@ -0,0 +1,301 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+/**
+ * Running statistics over a set of transaction amounts. The total is accumulated exactly in cents, while
+ * the mean and the sum of squared deviations are maintained with Welford's algorithm, so amounts can be
+ * added and removed one at a time without ever rescanning the set.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public class TransactionStatistics {
+
+    private long count;
+    private long sum;
+    private double mean;
+    private double squaredDeviations;
+
+    // the extremes are only known while no minimum or maximum amount has been removed.
+    private long minimum = Long.MAX_VALUE, maximum = Long.MIN_VALUE;
+    private boolean extremesKnown = true;
+
+
+    /**
+     * Default constructor. Creates statistics over an empty set of amounts.
+     */
+    public TransactionStatistics() {
+
+    }
+
+
+    /**
+     * Constructs a copy of the provided statistics.
+     *
+     * @param other The statistics being copied.
+     */
+    public TransactionStatistics(TransactionStatistics other) {
+        this.count = other.count;
+        this.sum = other.sum;
+        this.mean = other.mean;
+        this.squaredDeviations = other.squaredDeviations;
+        this.minimum = other.minimum;
+        this.maximum = other.maximum;
+        this.extremesKnown = other.extremesKnown;
+    }
+
+
+    /**
+     * Creates statistics from the totals of a set of amounts. The extremes of the amounts are unknown.
+     *
+     * @param count        The number of amounts.
+     * @param sum          The total of the amounts in cents.
+     * @param sumOfSquares The total of the squared amounts, in dollars.
+     *
+     * @return The TransactionStatistics of the amounts.
+     */
+    static TransactionStatistics fromTotals(long count, long sum, double sumOfSquares) {
+        TransactionStatistics statistics = new TransactionStatistics();
+        if (count == 0) {
+            return statistics;
+        }
+
+        statistics.count = count;
+        statistics.sum = sum;
+        statistics.mean = sum / 100.0 / count;
+        statistics.squaredDeviations = Math.max(0, sumOfSquares - count * statistics.mean * statistics.mean);
+        statistics.extremesKnown = false;
+
+        return statistics;
+    }
+
+
+    /**
+     * Creates statistics from the moments of a set of amounts accumulated elsewhere.
+     *
+     * @param count             The number of amounts.
+     * @param sum               The total of the amounts in cents.
+     * @param mean              The average amount, in dollars.
+     * @param squaredDeviations The sum of the squared deviations of the amounts from their average.
+     * @param minimum           The smallest amount in cents.
+     * @param maximum           The largest amount in cents.
+     *
+     * @return The TransactionStatistics of the amounts.
+     */
+    static TransactionStatistics of(long count, long sum, double mean, double squaredDeviations,
+                                    long minimum, long maximum) {
+        TransactionStatistics statistics = new TransactionStatistics();
+
+        statistics.count = count;
+        statistics.sum = sum;
+        statistics.mean = mean;
+        statistics.squaredDeviations = squaredDeviations;
+        statistics.minimum = minimum;
+        statistics.maximum = maximum;
+
+        return statistics;
+    }
+
+
+    /**
+     * Accounts for one more amount.
+     *
+     * @param cents The amount in cents.
+     */
+    public void add(long cents) {
+        double amount = cents / 100.0;
+        double delta = amount - mean;
+
+        count++;
+        sum += cents;
+        mean += delta / count;
+        squaredDeviations += delta * (amount - mean);
+
+        minimum = Math.min(minimum, cents);
+        maximum = Math.max(maximum, cents);
+    }
+
+
+    /**
+     * Stops accounting for an amount that was previously added. Removing the minimum or maximum amount
+     * leaves the extremes unknown, as the next smallest or largest amount is not tracked.
+     *
+     * @param cents The amount in cents.
+     */
+    public void remove(long cents) {
+        if (count <= 1) {
+            clear();
+            return;
+        }
+
+        double amount = cents / 100.0;
+        double previousMean = (count * mean - amount) / (count - 1);
+
+        squaredDeviations = Math.max(0, squaredDeviations - (amount - previousMean) * (amount - mean));
+        mean = previousMean;
+        sum -= cents;
+        count--;
+
+        if (cents <= minimum || cents >= maximum) {
+            extremesKnown = false;
+        }
+    }
+
+
+    /**
+     * Accounts for every amount of another set of statistics, as if they had been added one by one.
+     *
+     * @param other The statistics being merged into these.
+     */
+    public void merge(TransactionStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+
+        long total = count + other.count;
+        double delta = other.mean - mean;
+
+        squaredDeviations += other.squaredDeviations + delta * delta * count * other.count / total;
+        mean += delta * other.count / total;
+        sum += other.sum;
+        count = total;
+
+        minimum = Math.min(minimum, other.minimum);
+        maximum = Math.max(maximum, other.maximum);
+        extremesKnown &= other.extremesKnown;
+    }
+
+
+    /**
+     * Forgets every amount.
+     */
+    public void clear() {
+        count = sum = 0;
+        mean = squaredDeviations = 0;
+        minimum = Long.MAX_VALUE;
+        maximum = Long.MIN_VALUE;
+        extremesKnown = true;
+    }
+
+
+    /**
+     * Overrides the extremes, used once they have been recomputed after a removal.
+     *
+     * @param minimum The smallest amount in cents.
+     * @param maximum The largest amount in cents.
+     */
+    void setExtremes(long minimum, long maximum) {
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.extremesKnown = true;
+    }
+
+
+    /**
+     *
+     * @return The number of amounts.
+     */
+    public long getCount() {
+        return count;
+    }
+
+
+    /**
+     *
+     * @return The exact total of the amounts, in cents.
+     */
+    public long getSumCents() {
+        return sum;
+    }
+
+
+    /**
+     *
+     * @return The total of the amounts.
+     */
+    public double getSum() {
+        return sum / 100.0;
+    }
+
+
+    /**
+     *
+     * @return The average amount, or 0 if there are no amounts.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : getSum() / count;
+    }
+
+
+    /**
+     *
+     * @return The sample variance of the amounts, or 0 if there are less than two amounts.
+     */
+    public double getVariance() {
+        return count < 2 ? 0 : squaredDeviations / (count - 1);
+    }
+
+
+    /**
+     *
+     * @return The sample standard deviation of the amounts.
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+
+    /**
+     *
+     * @return True if the minimum and maximum are known.
+     */
+    public boolean hasExtremes() {
+        return extremesKnown && count > 0;
+    }
+
+
+    /**
+     *
+     * @return The smallest amount, or NaN if it is unknown.
+     */
+    public double getMinimum() {
+        return hasExtremes() ? minimum / 100.0 : Double.NaN;
+    }
+
+
+    /**
+     *
+     * @return The largest amount, or NaN if it is unknown.
+     */
+    public double getMaximum() {
+        return hasExtremes() ? maximum / 100.0 : Double.NaN;
+    }
+
+
+    /**
+     * Overrides the default toString() Object method to summarize the statistics.
+     *
+     * @return A Formatted String with the count, total, mean and standard deviation.
+     */
+    @Override
+    public String toString() {
+        return String.format("[Count=%d, Sum=%.2f, Mean=%.2f, Standard Deviation=%.2f]"
+                , getCount(), getSum(), getMean(), getStandardDeviation());
+    }
+}
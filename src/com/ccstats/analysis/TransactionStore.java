@@ -0,0 +1,337 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import com.ccstats.data.DescriptionDictionary;
+import com.ccstats.data.Transaction;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+
+
+/**
+ * Columnar backing storage of a TransactionPool. Every attribute of a transaction lives in its own
+ * primitive array, indexed by row: the date as an epoch day, the amount in cents, the description as
+ * an id into a DescriptionDictionary, and the authorized flag as a bit.
+ *
+ * Transaction objects are only created when a row is requested through get(int).
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+class TransactionStore {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final DescriptionDictionary dictionary;
+
+    private int[] days;
+    private long[] amounts;
+    private int[] descriptions;
+    private BitSet authorized;
+    private int size;
+
+    // set once a view refers to the rows of this store, after which the store must no longer change.
+    private boolean shared;
+
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param dictionary The dictionary used to encode the descriptions of the rows.
+     * @param capacity   The number of rows the store can hold before growing.
+     */
+    TransactionStore(DescriptionDictionary dictionary, int capacity) {
+        capacity = Math.max(capacity, DEFAULT_CAPACITY);
+
+        this.dictionary = dictionary;
+        this.days = new int[capacity];
+        this.amounts = new long[capacity];
+        this.descriptions = new int[capacity];
+        this.authorized = new BitSet(capacity);
+    }
+
+
+    /**
+     * Creates an unshared copy of this store.
+     *
+     * @return The copy.
+     */
+    TransactionStore copy() {
+        TransactionStore copy = new TransactionStore(dictionary, size);
+
+        System.arraycopy(days, 0, copy.days, 0, size);
+        System.arraycopy(amounts, 0, copy.amounts, 0, size);
+        System.arraycopy(descriptions, 0, copy.descriptions, 0, size);
+        copy.authorized.or(authorized);
+        copy.size = size;
+
+        return copy;
+    }
+
+
+    /**
+     * Flags the store as shared with a view.
+     */
+    void share() {
+        shared = true;
+    }
+
+
+    /**
+     *
+     * @return True if a view refers to the rows of this store.
+     */
+    boolean isShared() {
+        return shared;
+    }
+
+
+    /**
+     *
+     * @return The dictionary that encodes the descriptions of the rows.
+     */
+    DescriptionDictionary getDictionary() {
+        return dictionary;
+    }
+
+
+    /**
+     *
+     * @return The number of rows in the store.
+     */
+    int size() {
+        return size;
+    }
+
+
+    /**
+     *
+     * @return The date of the row as an epoch day.
+     */
+    int day(int row) {
+        return days[row];
+    }
+
+
+    /**
+     *
+     * @return The amount of the row in cents.
+     */
+    long amount(int row) {
+        return amounts[row];
+    }
+
+
+    /**
+     *
+     * @return The description id of the row.
+     */
+    int description(int row) {
+        return descriptions[row];
+    }
+
+
+    /**
+     *
+     * @return The status of the row.
+     */
+    boolean isAuthorized(int row) {
+        return authorized.get(row);
+    }
+
+
+    /**
+     * Creates the Transaction object represented by the row.
+     *
+     * @param row The row index.
+     *
+     * @return A new Transaction object.
+     */
+    Transaction get(int row) {
+        LocalDate date = LocalDate.ofEpochDay(days[row]);
+        return Transaction.ofCents(dictionary.get(descriptions[row]), date, amounts[row], authorized.get(row));
+    }
+
+
+    /**
+     * Appends a row at the end of the store.
+     */
+    void append(int day, long amount, int description, boolean authorized) {
+        ensureCapacity(size + 1);
+
+        this.days[size] = day;
+        this.amounts[size] = amount;
+        this.descriptions[size] = description;
+        this.authorized.set(size, authorized);
+        size++;
+    }
+
+
+    /**
+     * Appends the transaction at the end of the store.
+     *
+     * @param transaction The transaction being appended.
+     */
+    void append(Transaction transaction) {
+        append((int) transaction.getDate().toEpochDay(), transaction.getAmountCents(),
+                encode(transaction), transaction.isAuthorized());
+    }
+
+
+    /**
+     * Appends a row of another store at the end of this store, re-encoding its description if the two
+     * stores do not share a dictionary.
+     *
+     * @param other The store holding the row.
+     * @param row   The row index in the other store.
+     */
+    void append(TransactionStore other, int row) {
+        int description = other.descriptions[row];
+        if (other.dictionary != dictionary) {
+            description = dictionary.intern(other.dictionary.get(description));
+        }
+
+        append(other.days[row], other.amounts[row], description, other.authorized.get(row));
+    }
+
+
+    /**
+     * Inserts the transaction at the row index, shifting every following row by one.
+     *
+     * @param row         The row index.
+     * @param transaction The transaction being inserted.
+     */
+    void insert(int row, Transaction transaction) {
+        ensureCapacity(size + 1);
+
+        int tail = size - row;
+        System.arraycopy(days, row, days, row + 1, tail);
+        System.arraycopy(amounts, row, amounts, row + 1, tail);
+        System.arraycopy(descriptions, row, descriptions, row + 1, tail);
+        shiftAuthorized(row, 1);
+
+        days[row] = (int) transaction.getDate().toEpochDay();
+        amounts[row] = transaction.getAmountCents();
+        descriptions[row] = encode(transaction);
+        authorized.set(row, transaction.isAuthorized());
+        size++;
+    }
+
+
+    /**
+     * Acquires the id of the description of the transaction in the dictionary of this store.
+     *
+     * @param transaction The transaction.
+     *
+     * @return The description id.
+     */
+    private int encode(Transaction transaction) {
+        return dictionary.intern(transaction.getDescription());
+    }
+
+
+    /**
+     * Removes the row, shifting every following row back by one.
+     *
+     * @param row The row index.
+     */
+    void remove(int row) {
+        int tail = size - row - 1;
+        System.arraycopy(days, row + 1, days, row, tail);
+        System.arraycopy(amounts, row + 1, amounts, row, tail);
+        System.arraycopy(descriptions, row + 1, descriptions, row, tail);
+        shiftAuthorized(row + 1, -1);
+
+        size--;
+        authorized.clear(size);
+    }
+
+
+    /**
+     * Removes every row whose bit is set in a single compacting pass.
+     *
+     * @param removed The rows to be removed.
+     *
+     * @return The number of rows removed.
+     */
+    int removeAll(BitSet removed) {
+        int write = removed.nextSetBit(0);
+        if (write < 0 || write >= size) {
+            return 0;
+        }
+
+        for (int read = write + 1; read < size; read++) {
+            if (!removed.get(read)) {
+                days[write] = days[read];
+                amounts[write] = amounts[read];
+                descriptions[write] = descriptions[read];
+                authorized.set(write, authorized.get(read));
+                write++;
+            }
+        }
+
+        int count = size - write;
+        authorized.clear(write, size);
+        size = write;
+
+        return count;
+    }
+
+
+    /**
+     * Removes every row in the store.
+     */
+    void clear() {
+        authorized.clear();
+        size = 0;
+    }
+
+
+    /**
+     * Moves the authorized bits from the row index onwards by the given distance.
+     *
+     * @param from     The first row being moved.
+     * @param distance The number of rows to move the bits by.
+     */
+    private void shiftAuthorized(int from, int distance) {
+        BitSet tail = authorized.get(from, size);
+        authorized.clear(Math.min(from, from + distance), size + Math.max(distance, 0));
+
+        for (int i = tail.nextSetBit(0); i >= 0; i = tail.nextSetBit(i + 1)) {
+            authorized.set(from + distance + i);
+        }
+    }
+
+
+    /**
+     * Grows the columns so they can hold at least the requested number of rows.
+     *
+     * @param capacity The minimum number of rows.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > days.length) {
+            int length = Math.max(capacity, days.length + (days.length >> 1));
+
+            days = Arrays.copyOf(days, length);
+            amounts = Arrays.copyOf(amounts, length);
+            descriptions = Arrays.copyOf(descriptions, length);
+        }
+    }
+}
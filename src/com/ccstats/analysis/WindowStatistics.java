@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis;
+
+
+import java.time.LocalDate;
+
+
+/**
+ * The statistics of the transactions falling within a window of dates, as computed by
+ * TransactionPool#getStatistics(List).
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public class WindowStatistics {
+
+    private final LocalDate from, to;
+    private final TransactionStatistics statistics = new TransactionStatistics();
+    private final QuantileSketch sketch = new QuantileSketch();
+
+    // the earliest and latest days holding a transaction within the window.
+    private int earliest = Integer.MAX_VALUE, latest = Integer.MIN_VALUE;
+
+
+    /**
+     * Constructor for the WindowStatistics class.
+     *
+     * @param from The beginning date of the window.
+     * @param to   The (inclusive) ending date of the window.
+     */
+    WindowStatistics(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+
+    /**
+     * Accounts for a transaction of the window.
+     *
+     * @param day   The epoch day of the transaction.
+     * @param cents The amount of the transaction in cents.
+     */
+    void add(int day, long cents) {
+        statistics.add(cents);
+        sketch.add(cents);
+        earliest = Math.min(earliest, day);
+        latest = Math.max(latest, day);
+    }
+
+
+    /**
+     *
+     * @return The beginning date of the window.
+     */
+    public LocalDate getFrom() {
+        return from;
+    }
+
+
+    /**
+     *
+     * @return The (inclusive) ending date of the window.
+     */
+    public LocalDate getTo() {
+        return to;
+    }
+
+
+    /**
+     *
+     * @return The balance of the window.
+     */
+    public double getBalance() {
+        return statistics.getSum();
+    }
+
+
+    /**
+     *
+     * @return The number of transactions in the window.
+     */
+    public long getCount() {
+        return statistics.getCount();
+    }
+
+
+    /**
+     * Calculates the average amount spent per day over the days from the earliest to the latest transaction
+     * of the window, as TransactionPool#getAverageDay() does.
+     *
+     * @return The average amount spent per day.
+     */
+    public double getAverageDay() {
+        if (getCount() == 0) {
+            return 0;
+        }
+
+        return getBalance() / (latest - earliest + 1);
+    }
+
+
+    /**
+     *
+     * @return The standard deviation of the amounts of the window.
+     */
+    public double getStandardDeviation() {
+        return statistics.getStandardDeviation();
+    }
+
+
+    /**
+     *
+     * @return The smallest amount of the window, or NaN if the window is empty.
+     */
+    public double getMinimum() {
+        return statistics.getMinimum();
+    }
+
+
+    /**
+     *
+     * @return The largest amount of the window, or NaN if the window is empty.
+     */
+    public double getMaximum() {
+        return statistics.getMaximum();
+    }
+
+
+    /**
+     *
+     * @param percentile The percentage, from 0 to 100.
+     *
+     * @return The estimated amount below which the percentage of the amounts of the window fall.
+     * @see QuantileSketch#getPercentile(double)
+     */
+    public double getPercentile(double percentile) {
+        return sketch.getPercentile(percentile);
+    }
+
+
+    /**
+     *
+     * @return The estimated median amount of the window, or NaN if the window is empty.
+     */
+    public double getMedian() {
+        return sketch.getMedian();
+    }
+
+
+    /**
+     *
+     * @return A copy of the QuantileSketch of the window, which merges with the sketches of other windows.
+     */
+    public QuantileSketch getQuantileSketch() {
+        return new QuantileSketch(sketch);
+    }
+
+
+    /**
+     *
+     * @return A copy of the TransactionStatistics of the window.
+     */
+    public TransactionStatistics getStatistics() {
+        return new TransactionStatistics(statistics);
+    }
+
+
+    /**
+     * Overrides the default toString() Object method to summarize the window.
+     *
+     * @return A Formatted String with the dates and statistics of the window.
+     */
+    @Override
+    public String toString() {
+        return String.format("[From=%s, To=%s, Statistics=%s]", from, to, statistics);
+    }
+}
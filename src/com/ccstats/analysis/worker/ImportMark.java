@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis.worker;
+
+
+import com.ccstats.analysis.TransactionPool;
+import com.ccstats.data.Transaction;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * The high-water mark of the transactions already ingested from a statement: the date of the latest of
+ * them, and the fingerprints of the ones dated on that day. Once handed to an extractor, the rows dated
+ * before the mark are skipped without being parsed past their date, and the rows dated on the day of the
+ * mark are skipped if their fingerprint is one of the mark's. Re-importing a statement then only costs as
+ * much as the rows that are new since the mark.
+ *
+ * Fingerprints are counted, so a purchase that genuinely happened twice on the day of the mark is skipped
+ * twice only if both had been ingested. The rows on the day of the mark are claimed once the statement has
+ * been pooled, in pool order, so both extractors and a ParseCache hit skip the same copies of a repeated
+ * purchase. A fingerprint is a 64-bit hash of the description, amount and status of a transaction, and is
+ * stable across runs so that marks can be stored alongside statements.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public class ImportMark {
+
+    private final LocalDate date;
+    private final long[] fingerprints;
+
+
+    /**
+     * Constructor for the ImportMark class.
+     *
+     * @param date         The date of the latest ingested transaction.
+     * @param fingerprints The fingerprints of the ingested transactions dated on that day.
+     */
+    public ImportMark(LocalDate date, long[] fingerprints) {
+        this.date = date;
+        this.fingerprints = fingerprints.clone();
+    }
+
+
+    /**
+     * Creates the mark of the transactions of a pool.
+     *
+     * @param ingested The transactions already ingested.
+     *
+     * @return The ImportMark of the pool, or null if the pool is empty.
+     */
+    public static ImportMark of(TransactionPool ingested) {
+        if (ingested.isEmpty()) {
+            return null;
+        }
+
+        // the pool holds the latest transaction first.
+        LocalDate date = ingested.get(0).getDate();
+        long[] fingerprints = new long[ingested.size()];
+        int count = 0;
+
+        for (int i = 0; i < ingested.size() && ingested.get(i).getDate().equals(date); i++) {
+            fingerprints[count++] = fingerprint(ingested.get(i));
+        }
+
+        return new ImportMark(date, Arrays.copyOf(fingerprints, count));
+    }
+
+
+    /**
+     * Computes the fingerprint of a transaction, from its description, amount and status.
+     *
+     * @param transaction The transaction.
+     *
+     * @return The 64-bit fingerprint.
+     */
+    public static long fingerprint(Transaction transaction) {
+        // FNV-1a over the characters of the description, then the amount and the status.
+        long hash = 0xcbf29ce484222325L;
+        String description = transaction.getDescription();
+
+        for (int i = 0; i < description.length(); i++) {
+            hash = (hash ^ description.charAt(i)) * 0x100000001b3L;
+        }
+
+        hash = (hash ^ transaction.getAmountCents()) * 0x100000001b3L;
+        return (hash ^ (transaction.isAuthorized() ? 1 : 0)) * 0x100000001b3L;
+    }
+
+
+    /**
+     *
+     * @return The date of the latest ingested transaction.
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+
+    /**
+     *
+     * @return The fingerprints of the ingested transactions dated on the day of the mark.
+     */
+    public long[] getFingerprints() {
+        return fingerprints.clone();
+    }
+
+
+    /**
+     * Starts a pass of an extractor over a statement. The fingerprints of the mark are counted down by
+     * the rows they match, so every pass needs its own Boundary.
+     *
+     * @return The Boundary of the mark.
+     */
+    Boundary boundary() {
+        return new Boundary();
+    }
+
+
+    /**
+     * The state of the mark during a single pass over a statement.
+     */
+    class Boundary {
+
+        private final int day = (int) date.toEpochDay();
+        private final Map<Long, Integer> remaining = new HashMap<>();
+
+
+        private Boundary() {
+            for (long fingerprint : fingerprints) {
+                remaining.merge(fingerprint, 1, Integer::sum);
+            }
+        }
+
+
+        /**
+         * @param date The date of a row.
+         *
+         * @return True if the row comes before the mark, and has been ingested.
+         */
+        boolean isBefore(LocalDate date) {
+            return date.toEpochDay() < day;
+        }
+
+
+        /**
+         * Tests whether a transaction has been ingested, counting down its fingerprint if it is on the
+         * day of the mark.
+         *
+         * @param transaction The transaction of a row.
+         *
+         * @return True if the transaction has been ingested.
+         */
+        boolean claim(Transaction transaction) {
+            long epochDay = transaction.getDate().toEpochDay();
+            if (epochDay != day) {
+                return epochDay < day;
+            }
+
+            long fingerprint = fingerprint(transaction);
+            Integer count = remaining.get(fingerprint);
+            if (count == null) {
+                return false;
+            }
+
+            if (count == 1) {
+                remaining.remove(fingerprint);
+            } else {
+                remaining.put(fingerprint, count - 1);
+            }
+
+            return true;
+        }
+    }
+}
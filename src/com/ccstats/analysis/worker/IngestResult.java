@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis.worker;
+
+
+import com.ccstats.data.Statement;
+import com.ccstats.input.CreditStatement;
+
+import java.util.Collections;
+import java.util.Map;
+
+
+/**
+ * The outcome of ingesting a batch of statements with StatementIngest#ingest(List).
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public class IngestResult {
+
+    private final Statement statement;
+    private final Map<CreditStatement, Exception> failures;
+
+
+    /**
+     * Constructor for the IngestResult class.
+     *
+     * @param statement The Statement the transactions of the batch have been merged into.
+     * @param failures  The error of every statement that could not be ingested.
+     */
+    IngestResult(Statement statement, Map<CreditStatement, Exception> failures) {
+        this.statement = statement;
+        this.failures = failures;
+    }
+
+
+    /**
+     *
+     * @return The Statement holding the transactions of every statement that has been ingested.
+     */
+    public Statement getStatement() {
+        return statement;
+    }
+
+
+    /**
+     *
+     * @return The error of every statement that could not be ingested, in the order of the batch.
+     */
+    public Map<CreditStatement, Exception> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+
+    /**
+     *
+     * @return True if any statement could not be ingested.
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
@@ -0,0 +1,540 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis.worker;
+
+
+import com.ccstats.analysis.TransactionPool;
+import com.ccstats.data.Transaction;
+import com.ccstats.input.CreditStatement;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * An on-disk cache of the transactions extracted from statement files, so that analyses re-run over the
+ * same archived statements skip parsing them. Every statement has an entry in the cache directory, holding
+ * the size, modification time and SHA-256 digest of the file along with its transactions. An entry whose
+ * size and modification time still match the file is used as is; otherwise the file is hashed, and the
+ * entry is only used if the digest is unchanged.
+ *
+ * Entries are stored in a compact binary form: the distinct descriptions once, then a fixed-width record per
+ * transaction. The directory is bounded in bytes, and the least recently used entries are evicted when a new
+ * entry takes it past the bound. A cache can be shared by threads, and by processes using the same directory.
+ *
+ * The cache is best-effort: an entry that cannot be decoded is discarded and counts as a miss, and an entry
+ * that cannot be written is left out, so a failing cache only costs statements their parse.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public class ParseCache {
+
+    private static final int MAGIC = 0x43435043, VERSION = 2;
+    private static final String ENTRY_SUFFIX = ".pool";
+
+    // the sizes of the fixed parts of an entry: its header, and the record of a transaction.
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 32, RECORD_BYTES = 4 + 4 + 8 + 1;
+
+    private final Path directory;
+    private final long maxBytes;
+
+
+    /**
+     * Constructor for the ParseCache class. The directory is created if it does not exist.
+     *
+     * @param directory The directory the entries are stored in.
+     * @param maxBytes  The largest number of bytes the entries may take up.
+     *
+     * @throws IOException If the directory cannot be created.
+     */
+    public ParseCache(Path directory, long maxBytes) throws IOException {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("The size of the cache cannot be negative: " + maxBytes);
+        }
+
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+    }
+
+
+    /**
+     *
+     * @return The directory the entries are stored in.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+
+    /**
+     *
+     * @return The largest number of bytes the entries may take up.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+
+    /**
+     * Looks up the transactions of a statement. On a miss, the statement is stamped and hashed before it is
+     * parsed, so that the entry put() writes for the miss describes the content the transactions were parsed
+     * from.
+     *
+     * @param statement The CreditStatement.
+     * @param charset   The charset the statement is read in.
+     *
+     * @return The Lookup of the statement, holding its TransactionPool if the cache holds an entry for its
+     *         content.
+     * @throws IOException If the statement cannot be read.
+     */
+    public Lookup lookup(CreditStatement statement, Charset charset) throws IOException {
+        Path file = Paths.get(statement.getAbsolutePath());
+        Path entry = entryOf(file, charset);
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long modified = attributes.lastModifiedTime().toMillis();
+
+        Entry cached;
+        try {
+            cached = Entry.read(ByteBuffer.wrap(Files.readAllBytes(entry)));
+        } catch (NoSuchFileException e) {
+            return miss(file, entry, attributes, digest(file));
+        } catch (IOException | RuntimeException e) {
+            // a truncated or corrupt entry, or one written by another version.
+            discard(entry);
+            return miss(file, entry, attributes, digest(file));
+        }
+
+        if (cached.size != attributes.size() || cached.modified != modified) {
+            byte[] digest = digest(file);
+            if (cached.size != attributes.size() || !Arrays.equals(cached.digest, digest)) {
+                return miss(file, entry, attributes, digest);
+            }
+
+            // the content is unchanged, so only the stamp of the entry is stale.
+            cached.modified = modified;
+            try {
+                write(entry, cached);
+            } catch (IOException e) {
+                // the stamp is refreshed on a later hit.
+            }
+        } else {
+            try {
+                Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (IOException e) {
+                // evicted since it was read, or not writable; the entry is only less likely to be kept.
+            }
+        }
+
+        return new Lookup(file, entry, attributes.size(), modified, null, cached.toPool());
+    }
+
+
+    /**
+     * Stamps a statement the cache holds no entry for. The stamp is only kept if the statement did not change
+     * while it was hashed, as the digest would otherwise not match the size and modification time.
+     *
+     * @return The Lookup of the miss.
+     */
+    private static Lookup miss(Path file, Path entry, BasicFileAttributes attributes, byte[] digest)
+            throws IOException {
+        long modified = attributes.lastModifiedTime().toMillis();
+        BasicFileAttributes hashed = Files.readAttributes(file, BasicFileAttributes.class);
+
+        if (hashed.size() != attributes.size() || hashed.lastModifiedTime().toMillis() != modified) {
+            digest = null;
+        }
+
+        return new Lookup(file, entry, attributes.size(), modified, digest, null);
+    }
+
+
+    /**
+     * Stores the transactions parsed from a statement after a miss, evicting the least recently used
+     * entries if the cache grows past its bound. The entry is stamped with the size, modification time and
+     * digest the statement had when it was looked up, and is not written if the statement has changed since,
+     * as the transactions may then have been parsed from either content.
+     *
+     * @param miss         The Lookup that missed, taken before the statement was parsed.
+     * @param transactions The transactions extracted from the statement.
+     *
+     * @return True if the transactions were stored, false if the statement changed or the cache could not be
+     *         written.
+     * @throws IllegalArgumentException If the lookup was a hit.
+     */
+    public boolean put(Lookup miss, TransactionPool transactions) {
+        if (miss.isHit()) {
+            throw new IllegalArgumentException("The statement is already cached.");
+        } else if (miss.digest == null) {
+            return false;
+        }
+
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(miss.file, BasicFileAttributes.class);
+            if (attributes.size() != miss.size || attributes.lastModifiedTime().toMillis() != miss.modified) {
+                return false;
+            }
+
+            write(miss.entry, Entry.of(miss.size, miss.modified, miss.digest, transactions));
+            evict();
+            return true;
+        } catch (IOException | DirectoryIteratorException e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * Writes an entry through a temporary file, so that readers never see it partly written.
+     */
+    private void write(Path entry, Entry cached) throws IOException {
+        Path temporary = Files.createTempFile(directory, "entry", ".tmp");
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temporary)))) {
+                cached.write(out);
+            }
+
+            Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+
+    /**
+     * Deletes the least recently used entries until the entries fit in the bound of the cache.
+     */
+    private synchronized void evict() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        Map<Path, BasicFileAttributes> attributes = new HashMap<>();
+        long total = 0;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + ENTRY_SUFFIX)) {
+            for (Path entry : stream) {
+                try {
+                    BasicFileAttributes attribute = Files.readAttributes(entry, BasicFileAttributes.class);
+                    attributes.put(entry, attribute);
+                    entries.add(entry);
+                    total += attribute.size();
+                } catch (NoSuchFileException e) {
+                    // evicted by another cache over the same directory.
+                }
+            }
+        }
+
+        entries.sort((a, b) -> attributes.get(a).lastModifiedTime().compareTo(attributes.get(b).lastModifiedTime()));
+        for (int i = 0; i < entries.size() && total > maxBytes; i++) {
+            Files.deleteIfExists(entries.get(i));
+            total -= attributes.get(entries.get(i)).size();
+        }
+    }
+
+
+    /**
+     * Deletes an entry that cannot be used, if it can be deleted.
+     */
+    private static void discard(Path entry) {
+        try {
+            Files.deleteIfExists(entry);
+        } catch (IOException e) {
+            // it is discarded again on the next lookup.
+        }
+    }
+
+
+    /**
+     * Names the entry of a statement after a hash of its path and charset.
+     *
+     * @return The path of the entry.
+     */
+    private Path entryOf(Path file, Charset charset) {
+        MessageDigest sha = sha256();
+        sha.update(file.toString().getBytes(StandardCharsets.UTF_8));
+        sha.update((byte) 0);
+        sha.update(charset.name().getBytes(StandardCharsets.UTF_8));
+
+        return directory.resolve(hex(sha.digest()) + ENTRY_SUFFIX);
+    }
+
+
+    /**
+     *
+     * @return The SHA-256 digest of the content of the file.
+     */
+    private static byte[] digest(Path file) throws IOException {
+        MessageDigest sha = sha256();
+        byte[] buffer = new byte[8192];
+
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                sha.update(buffer, 0, read);
+            }
+        }
+
+        return sha.digest();
+    }
+
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+
+        return hex.toString();
+    }
+
+
+    /**
+     * The result of looking up a statement: its transactions on a hit, and on a miss the stamp and digest the
+     * statement had before it was parsed.
+     */
+    public static class Lookup {
+
+        private final Path file, entry;
+        private final long size, modified;
+        private final byte[] digest;
+        private final TransactionPool transactions;
+
+
+        private Lookup(Path file, Path entry, long size, long modified, byte[] digest,
+                       TransactionPool transactions) {
+            this.file = file;
+            this.entry = entry;
+            this.size = size;
+            this.modified = modified;
+            this.digest = digest;
+            this.transactions = transactions;
+        }
+
+
+        /**
+         *
+         * @return True if the cache held the transactions of the statement.
+         */
+        public boolean isHit() {
+            return transactions != null;
+        }
+
+
+        /**
+         *
+         * @return The cached TransactionPool of the statement, or null on a miss.
+         */
+        public TransactionPool getTransactions() {
+            return transactions;
+        }
+    }
+
+
+    /**
+     * The stamp of a statement file and the transactions extracted from it.
+     */
+    private static class Entry {
+
+        private final long size;
+        private long modified;
+        private final byte[] digest;
+
+        private final String[] descriptions;
+        private final int[] days, descriptionIndices;
+        private final long[] amounts;
+        private final boolean[] authorized;
+
+
+        private Entry(long size, long modified, byte[] digest, String[] descriptions, int[] days,
+                      int[] descriptionIndices, long[] amounts, boolean[] authorized) {
+            this.size = size;
+            this.modified = modified;
+            this.digest = digest;
+            this.descriptions = descriptions;
+            this.days = days;
+            this.descriptionIndices = descriptionIndices;
+            this.amounts = amounts;
+            this.authorized = authorized;
+        }
+
+
+        /**
+         * Creates the entry of the transactions of a statement.
+         *
+         * @return The Entry.
+         */
+        private static Entry of(long size, long modified, byte[] digest, TransactionPool transactions) {
+            int count = transactions.size();
+            int[] days = new int[count], descriptionIndices = new int[count];
+            long[] amounts = new long[count];
+            boolean[] authorized = new boolean[count];
+
+            Map<String, Integer> indices = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                Transaction transaction = transactions.get(i);
+                days[i] = (int) transaction.getDate().toEpochDay();
+                descriptionIndices[i] = indices.computeIfAbsent(transaction.getDescription(), k -> indices.size());
+                amounts[i] = transaction.getAmountCents();
+                authorized[i] = transaction.isAuthorized();
+            }
+
+            String[] descriptions = new String[indices.size()];
+            indices.forEach((description, index) -> descriptions[index] = description);
+
+            return new Entry(size, modified, digest, descriptions, days, descriptionIndices, amounts, authorized);
+        }
+
+
+        /**
+         * Decodes an entry. Counts are checked against the bytes left before anything is allocated, so a
+         * corrupt entry fails rather than exhausting the memory.
+         *
+         * @return The Entry.
+         * @throws IllegalStateException If the buffer does not hold an entry of this version.
+         * @throws java.nio.BufferUnderflowException If the entry is truncated.
+         */
+        private static Entry read(ByteBuffer in) {
+            if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IllegalStateException("Not a parse cache entry.");
+            }
+
+            long size = in.getLong(), modified = in.getLong();
+            byte[] digest = new byte[32];
+            in.get(digest);
+
+            // every description takes at least its length.
+            String[] descriptions = new String[count(in, 4)];
+            for (int i = 0; i < descriptions.length; i++) {
+                byte[] utf = new byte[count(in, 1)];
+                in.get(utf);
+                descriptions[i] = new String(utf, StandardCharsets.UTF_8);
+            }
+
+            int count = count(in, RECORD_BYTES);
+            int[] days = new int[count], descriptionIndices = new int[count];
+            long[] amounts = new long[count];
+            boolean[] authorized = new boolean[count];
+
+            for (int i = 0; i < count; i++) {
+                days[i] = in.getInt();
+                descriptionIndices[i] = in.getInt();
+                amounts[i] = in.getLong();
+                authorized[i] = in.get() != 0;
+
+                if (descriptionIndices[i] < 0 || descriptionIndices[i] >= descriptions.length) {
+                    throw new IllegalStateException("Corrupt parse cache entry.");
+                }
+            }
+
+            if (in.hasRemaining()) {
+                throw new IllegalStateException("Corrupt parse cache entry.");
+            }
+
+            return new Entry(size, modified, digest, descriptions, days, descriptionIndices, amounts, authorized);
+        }
+
+
+        /**
+         * Reads a count of items, checking that the bytes left can hold that many.
+         *
+         * @param bytes The least number of bytes an item takes.
+         *
+         * @return The count.
+         */
+        private static int count(ByteBuffer in, int bytes) {
+            int count = in.getInt();
+            if (count < 0 || count > in.remaining() / bytes) {
+                throw new IllegalStateException("Corrupt parse cache entry.");
+            }
+
+            return count;
+        }
+
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(size);
+            out.writeLong(modified);
+            out.write(digest);
+
+            // descriptions are written as length-prefixed UTF-8, which unlike writeUTF has no length limit.
+            out.writeInt(descriptions.length);
+            for (String description : descriptions) {
+                byte[] utf = description.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf.length);
+                out.write(utf);
+            }
+
+            out.writeInt(days.length);
+            for (int i = 0; i < days.length; i++) {
+                out.writeInt(days[i]);
+                out.writeInt(descriptionIndices[i]);
+                out.writeLong(amounts[i]);
+                out.writeBoolean(authorized[i]);
+            }
+        }
+
+
+        /**
+         * Rebuilds the pool of the entry. Its transactions are stored in the order of the pool, and same-day
+         * transactions are pooled in reverse insertion order, so they are handed to the pool backwards.
+         *
+         * @return The TransactionPool.
+         */
+        private TransactionPool toPool() {
+            List<Transaction> transactions = new ArrayList<>(days.length);
+            for (int i = days.length - 1; i >= 0; i--) {
+                transactions.add(Transaction.ofCents(descriptions[descriptionIndices[i]],
+                        LocalDate.ofEpochDay(days[i]), amounts[i], authorized[i]));
+            }
+
+            return new TransactionPool(transactions);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis.worker;
+
+
+import com.ccstats.analysis.TransactionPool;
+import com.ccstats.data.Statement;
+import com.ccstats.input.CreditStatement;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+/**
+ * Ingests a batch of statements into a single Statement. The statements are parsed concurrently with the
+ * StreamingTransactionsExtractor on a fixed number of threads, which caps how many statements are being
+ * read at once, and the date-sorted pools they give are k-way merged once all of them are parsed.
+ *
+ * A statement that cannot be read or parsed does not fail the batch: its error is recorded in the
+ * IngestResult, and the other statements are merged without it.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public class StatementIngest {
+
+    private final int concurrency;
+    private ParseCache cache;
+
+
+    /**
+     * Default constructor. Parses as many statements at once as there are processors.
+     */
+    public StatementIngest() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+
+    /**
+     * Constructor for the StatementIngest class.
+     *
+     * @param concurrency The largest number of statements parsed at once.
+     */
+    public StatementIngest(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("The concurrency must be positive: " + concurrency);
+        }
+
+        this.concurrency = concurrency;
+    }
+
+
+    /**
+     * Sets the parse cache the statements are looked up in. Statements the cache holds are not parsed, and
+     * the transactions of the others are stored in it once parsed.
+     *
+     * @param cache The ParseCache of the statements, or null to parse every statement.
+     */
+    public void setCache(ParseCache cache) {
+        this.cache = cache;
+    }
+
+
+    /**
+     * Parses the statements and merges their transactions into a single Statement. On a given day, the
+     * transactions of later statements come first, as if every statement had been merged in turn.
+     *
+     * @param statements The statements being ingested.
+     *
+     * @return The IngestResult holding the merged Statement and the errors of the statements left out.
+     * @throws InterruptedException If the thread is interrupted while waiting for the statements to be parsed.
+     */
+    public IngestResult ingest(List<CreditStatement> statements) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, statements.size())));
+        List<Future<TransactionPool>> parsed = new ArrayList<>(statements.size());
+
+        try {
+            for (CreditStatement statement : statements) {
+                parsed.add(executor.submit(() -> read(statement)));
+            }
+
+            List<TransactionPool> pools = new ArrayList<>(statements.size());
+            Map<CreditStatement, Exception> failures = new LinkedHashMap<>();
+
+            for (int i = 0; i < statements.size(); i++) {
+                try {
+                    TransactionPool pool = parsed.get(i).get();
+                    if (pool != null) {
+                        pools.add(pool);
+                    }
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+
+                    failures.put(statements.get(i), (Exception) cause);
+                }
+            }
+
+            Statement statement = new Statement(new TransactionPool());
+            statement.mergeAll(pools);
+
+            return new IngestResult(statement, failures);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Reads the transactions of a statement, from the parse cache if it holds them.
+     *
+     * @return The TransactionPool of the statement, or null if it holds no transaction tables.
+     */
+    private TransactionPool read(CreditStatement statement) throws IOException {
+        ParseCache.Lookup lookup = cache == null ? null : cache.lookup(statement, StandardCharsets.UTF_8);
+        if (lookup != null && lookup.isHit()) {
+            return lookup.getTransactions();
+        }
+
+        TransactionPool transactions = new StreamingTransactionsExtractor(statement).read();
+        if (lookup != null && transactions != null) {
+            cache.put(lookup, transactions);
+        }
+
+        return transactions;
+    }
+}
@@ -0,0 +1,618 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.analysis.worker;
+
+
+import com.ccstats.analysis.TransactionPool;
+import com.ccstats.data.Dates;
+import com.ccstats.data.Transaction;
+import com.ccstats.input.CreditStatement;
+import com.ccstats.input.StatementSource;
+import org.jsoup.parser.Parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Extracts the transactions of a statement in a single streaming pass over its HTML, without building the
+ * document tree that TransactionsExtractor parses the statement into. The HTML is tokenized as it is read,
+ * and every row of the authorized and posted tables is turned into a Transaction as soon as it ends, so
+ * memory is bounded by the transactions rather than by the size of the statement.
+ *
+ * The cells of a row are serialized the way Jsoup's Element#html() serializes them (entities are decoded and
+ * re-escaped, whitespace is collapsed), so read() gives the same transactions as TransactionsExtractor#read().
+ * Unlike Jsoup, the tokenizer does not repair malformed tables: a cell or row that is not closed is ended by
+ * the next cell, row or table tag, and tables nested inside the statement tables are not supported.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public class StreamingTransactionsExtractor {
+
+    private static final int AUTHORIZED_TABLE = 1, POSTED_TABLE = 2;
+    private static final int TRANSACTION_DESCRIPTION = 0, TRANSACTION_DEBIT_AMOUNT = 1, TRANSACTION_CREDIT_AMOUNT = 2;
+
+    // elements that never have content or an end tag, and elements whose content is not markup.
+    private static final Set<String> VOID_ELEMENTS = new HashSet<>(Arrays.asList("area", "base", "br", "col",
+            "embed", "hr", "img", "input", "keygen", "link", "meta", "param", "source", "track", "wbr"));
+    private static final Set<String> RAW_TEXT_ELEMENTS = new HashSet<>(Arrays.asList("script", "style",
+            "textarea", "title"));
+
+    private StatementSource source;
+    private String html;
+    private ImportMark mark;
+
+    private Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position, limit;
+
+    // the number of tables opened so far and the index of the table the tokenizer is in, or -1.
+    private int tables;
+    private int table = -1;
+    private int rowsInTable;
+
+    private List<Cell> headers, data;
+    private Cell cell;
+
+    // set once the date of the current row places it before the import mark, leaving the rest of it unread.
+    private boolean skipping;
+    private ImportMark.Boundary boundary;
+
+    private List<Transaction> authorized, posted;
+
+
+    /**
+     * Constructor for the StreamingTransactionsExtractor that requires the statement as a parameter.
+     * The statement is only read once read() is called.
+     *
+     * @param statement The CreditStatement instance provided by the user.
+     */
+    public StreamingTransactionsExtractor(CreditStatement statement) {
+        this(statement, "UTF-8");
+    }
+
+
+    /**
+     * Constructor for the StreamingTransactionsExtractor that requires both the statement and its charset
+     * as parameters.
+     *
+     * @param statement The CreditStatement Object.
+     * @param charset   The charset name.
+     */
+    public StreamingTransactionsExtractor(CreditStatement statement, String charset) {
+        this(StatementSource.of(statement, Charset.forName(charset)));
+    }
+
+
+    /**
+     * Constructor for the StreamingTransactionsExtractor that reads the statement from a source. The
+     * bytes of the source are decompressed and decoded as the statement is tokenized, so neither the
+     * statement nor its text is ever held as a whole.
+     *
+     * @param source The StatementSource of the statement.
+     */
+    public StreamingTransactionsExtractor(StatementSource source) {
+        this.source = source;
+    }
+
+
+    /**
+     * Constructor for the StreamingTransactionsExtractor. Requires the html text of the document as a
+     * parameter.
+     *
+     * @param html The HTML text as a String object.
+     */
+    public StreamingTransactionsExtractor(String html) {
+        this.html = html;
+    }
+
+
+    /**
+     * Sets the high-water mark of the transactions already ingested from the statement. The rows of the
+     * statement dated before the mark are skipped as soon as their date is read, and the rows dated on the
+     * day of the mark are skipped if the mark holds them.
+     *
+     * @param mark The ImportMark of the ingested transactions, or null to read every row.
+     */
+    public void setImportMark(ImportMark mark) {
+        this.mark = mark;
+    }
+
+
+    /**
+     * Parses the source, instantiates transaction objects from the read data, and appends them to
+     * a TransactionPool.
+     *
+     * @return The TransactionPool object containing all read transactions, or null if the source holds no
+     *         transaction tables.
+     * @throws IOException If the statement cannot be read.
+     */
+    public TransactionPool read() throws IOException {
+        tables = 0;
+        table = -1;
+        headers = data = null;
+        cell = null;
+        skipping = false;
+        boundary = mark == null ? null : mark.boundary();
+        authorized = new ArrayList<>();
+        posted = new ArrayList<>();
+        position = limit = 0;
+
+        try (Reader reader = html != null ? new StringReader(html) : source.openReader()) {
+            this.reader = reader;
+            tokenize();
+        } finally {
+            this.reader = null;
+        }
+
+        return collect();
+    }
+
+
+    /**
+     * Pools the extracted transactions the way TransactionsExtractor does, so that the order of same-day
+     * transactions is the same.
+     *
+     * @return The TransactionPool object of the transactions, or null if the source has no transaction tables.
+     */
+    private TransactionPool collect() {
+        TransactionPool transactions;
+        if (tables <= AUTHORIZED_TABLE) {
+            return null;
+        } else if (tables == POSTED_TABLE) {
+            // there is only posted or authorized transactions, which TransactionsExtractor reads as posted.
+            transactions = new TransactionPool();
+            for (Transaction transaction : authorized) {
+                transactions.add(Transaction.ofCents(transaction.getDescription(), transaction.getDate(),
+                        transaction.getAmountCents(), false));
+            }
+        } else {
+            transactions = new TransactionPool(authorized);
+            transactions.addAll(new TransactionPool(posted));
+        }
+
+        // the rows on the day of the mark are claimed in pool order, as TransactionsExtractor claims them.
+        if (boundary != null) {
+            transactions.removeIf(boundary::claim);
+        }
+
+        return transactions;
+    }
+
+
+    /**
+     * Reads the source to its end, handing every tag, comment and text run to the table state.
+     */
+    private void tokenize() throws IOException {
+        StringBuilder text = new StringBuilder();
+
+        for (int c = next(); c >= 0; c = next()) {
+            if (c != '<') {
+                if (cell != null) {
+                    text.append((char) c);
+                }
+                continue;
+            }
+
+            int next = peek(0);
+            if (next == '!' && peek(1) == '-' && peek(2) == '-') {
+                flushText(text);
+                skip(3);
+                String comment = readUntil("-->");
+                if (cell != null) {
+                    cell.html.append("<!--").append(comment).append("-->");
+                }
+            } else if (next == '!' || next == '?') {
+                flushText(text);
+                readUntil(">");
+            } else if (next == '/' && isLetter(peek(1))) {
+                flushText(text);
+                skip(1);
+                endTag(readName());
+                readUntil(">");
+            } else if (isLetter(next)) {
+                flushText(text);
+                String name = readName();
+                String attributes = readAttributes();
+                startTag(name, attributes);
+
+                if (RAW_TEXT_ELEMENTS.contains(name)) {
+                    skipRawText(name);
+                }
+            } else if (cell != null) {
+                text.append('<');
+            }
+        }
+
+        flushText(text);
+        endTable();
+    }
+
+
+    /**
+     * Handles a start tag.
+     *
+     * @param name       The lower case tag name.
+     * @param attributes The attributes of the tag, serialized as Jsoup serializes them.
+     */
+    private void startTag(String name, String attributes) {
+        switch (name) {
+            case "table":
+                endTable();
+                table = tables++;
+                rowsInTable = 0;
+                return;
+            case "tr":
+                endRow();
+                skipping = false;
+                if (table == AUTHORIZED_TABLE || table == POSTED_TABLE) {
+                    headers = new ArrayList<>();
+                    data = new ArrayList<>();
+                }
+                return;
+            case "th":
+            case "td":
+                endCell();
+                if (data != null && !skipping) {
+                    cell = new Cell();
+                    (name.equals("th") ? headers : data).add(cell);
+                }
+                return;
+        }
+
+        if (cell != null) {
+            cell.html.append('<').append(name).append(attributes).append('>');
+            cell.elements += cell.depth == 0 ? 1 : 0;
+            cell.depth += VOID_ELEMENTS.contains(name) ? 0 : 1;
+        }
+    }
+
+
+    /**
+     * Handles an end tag.
+     *
+     * @param name The lower case tag name.
+     */
+    private void endTag(String name) {
+        switch (name) {
+            case "table":
+                endTable();
+                return;
+            case "tr":
+                endRow();
+                return;
+            case "th":
+            case "td":
+                endCell();
+                return;
+        }
+
+        if (cell != null && cell.depth > 0 && !VOID_ELEMENTS.contains(name)) {
+            cell.html.append("</").append(name).append('>');
+            cell.depth--;
+        }
+    }
+
+
+    /**
+     * Ends the current table, along with its last row.
+     */
+    private void endTable() {
+        endRow();
+        table = -1;
+    }
+
+
+    /**
+     * Ends the current row, turning it into a Transaction unless it is the header row of its table.
+     */
+    private void endRow() {
+        endCell();
+        if (data == null) {
+            return;
+        }
+
+        List<Cell> headers = this.headers, data = this.data;
+        this.headers = this.data = null;
+
+        // the first row of the table is just for the headers of the table (description, pending debit, pending credit)
+        if (rowsInTable++ == 0 || skipping) {
+            return;
+        }
+
+        Cell debit = data.get(TRANSACTION_DEBIT_AMOUNT);
+        String credit = data.size() > TRANSACTION_CREDIT_AMOUNT ? data.get(TRANSACTION_CREDIT_AMOUNT).toString() : "";
+        Transaction transaction = TransactionsExtractor.toTransaction(headers.get(0).toString(),
+                data.get(TRANSACTION_DESCRIPTION).toString(), debit.toString(), debit.elements == 0, credit,
+                table == AUTHORIZED_TABLE);
+
+        (table == AUTHORIZED_TABLE ? authorized : posted).add(transaction);
+    }
+
+
+    /**
+     * Ends the current cell. If it is the date of a row, and the date comes before the import mark, the rest
+     * of the row is skipped.
+     */
+    private void endCell() {
+        if (cell != null && boundary != null && rowsInTable > 0 && !headers.isEmpty() && cell == headers.get(0)
+                && boundary.isBefore(Dates.parseStatementDate(cell.toString()))) {
+            skipping = true;
+        }
+
+        cell = null;
+    }
+
+
+    /**
+     * Appends a text run to the current cell the way Jsoup serializes text: entities are decoded, runs
+     * of whitespace are collapsed into a single space, and markup characters are escaped.
+     *
+     * @param text The raw text run, which is cleared.
+     */
+    private void flushText(StringBuilder text) {
+        if (text.length() == 0) {
+            return;
+        }
+
+        if (cell != null) {
+            String decoded = Parser.unescapeEntities(text.toString(), false);
+            StringBuilder html = cell.html;
+            boolean whitespace = false;
+
+            for (int i = 0; i < decoded.length(); i++) {
+                char c = decoded.charAt(i);
+
+                if (c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r') {
+                    if (!whitespace) {
+                        html.append(' ');
+                    }
+                    whitespace = true;
+                    continue;
+                }
+
+                whitespace = false;
+                switch (c) {
+                    case '&':
+                        html.append("&amp;");
+                        break;
+                    case '<':
+                        html.append("&lt;");
+                        break;
+                    case '>':
+                        html.append("&gt;");
+                        break;
+                    case '\u00A0':
+                        html.append("&nbsp;");
+                        break;
+                    default:
+                        html.append(c);
+                }
+            }
+        }
+
+        text.setLength(0);
+    }
+
+
+    /**
+     * Reads a tag name, lower cased.
+     */
+    private String readName() throws IOException {
+        StringBuilder name = new StringBuilder();
+
+        for (int c = peek(0); c >= 0 && c != '>' && c != '/' && !isWhitespace(c); c = peek(0)) {
+            name.append(Character.toLowerCase((char) next()));
+        }
+
+        return name.toString();
+    }
+
+
+    /**
+     * Reads the attributes of a start tag up to and including its closing '>', serializing them as
+     * Jsoup does: lower case names and double quoted values.
+     */
+    private String readAttributes() throws IOException {
+        StringBuilder attributes = new StringBuilder();
+
+        while (true) {
+            int c = next();
+            if (c < 0 || c == '>') {
+                return attributes.toString();
+            } else if (isWhitespace(c) || c == '/') {
+                continue;
+            }
+
+            StringBuilder name = new StringBuilder().append(Character.toLowerCase((char) c));
+            for (c = peek(0); c >= 0 && c != '=' && c != '>' && c != '/' && !isWhitespace(c); c = peek(0)) {
+                name.append(Character.toLowerCase((char) next()));
+            }
+
+            while (isWhitespace(peek(0))) {
+                next();
+            }
+
+            String value = "";
+            if (peek(0) == '=') {
+                next();
+                while (isWhitespace(peek(0))) {
+                    next();
+                }
+
+                int quote = peek(0);
+                if (quote == '"' || quote == '\'') {
+                    next();
+                    value = readUntil(String.valueOf((char) quote));
+                } else {
+                    StringBuilder unquoted = new StringBuilder();
+                    for (c = peek(0); c >= 0 && c != '>' && !isWhitespace(c); c = peek(0)) {
+                        unquoted.append((char) next());
+                    }
+                    value = unquoted.toString();
+                }
+            }
+
+            value = Parser.unescapeEntities(value, true).replace("&", "&amp;").replace("\"", "&quot;")
+                    .replace("\u00A0", "&nbsp;");
+            attributes.append(' ').append(name).append("=\"").append(value).append('"');
+        }
+    }
+
+
+    /**
+     * Skips the content of a raw text element up to its end tag, which is consumed as well.
+     */
+    private void skipRawText(String name) throws IOException {
+        while (true) {
+            readUntil("</");
+            if (peek(0) < 0) {
+                return;
+            }
+
+            boolean matches = true;
+            for (int i = 0; i < name.length() && matches; i++) {
+                matches = Character.toLowerCase((char) peek(i)) == name.charAt(i);
+            }
+
+            if (matches) {
+                readUntil(">");
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Reads up to and including the terminator, or to the end of the source.
+     *
+     * @return The characters read before the terminator.
+     */
+    private String readUntil(String terminator) throws IOException {
+        StringBuilder read = new StringBuilder();
+
+        for (int c = next(); c >= 0; c = next()) {
+            read.append((char) c);
+
+            if (c == terminator.charAt(terminator.length() - 1) && read.length() >= terminator.length()
+                    && read.lastIndexOf(terminator) == read.length() - terminator.length()) {
+                read.setLength(read.length() - terminator.length());
+                break;
+            }
+        }
+
+        return read.toString();
+    }
+
+
+    /**
+     * @return The next character, consumed, or -1 at the end of the source.
+     */
+    private int next() throws IOException {
+        if (position == limit && !fill(1)) {
+            return -1;
+        }
+
+        return buffer[position++];
+    }
+
+
+    /**
+     * @return The character at the offset ahead of the next character, not consumed, or -1 past the end of
+     *         the source.
+     */
+    private int peek(int offset) throws IOException {
+        if (position + offset >= limit && !fill(offset + 1)) {
+            return -1;
+        }
+
+        return buffer[position + offset];
+    }
+
+
+    /**
+     * Consumes the next characters.
+     */
+    private void skip(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            next();
+        }
+    }
+
+
+    /**
+     * Moves the unread characters to the start of the buffer and reads until at least the required number
+     * of them is available.
+     *
+     * @return False if the source ends first.
+     */
+    private boolean fill(int required) throws IOException {
+        System.arraycopy(buffer, position, buffer, 0, limit - position);
+        limit -= position;
+        position = 0;
+
+        while (limit < required) {
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                return false;
+            }
+
+            limit += read;
+        }
+
+        return true;
+    }
+
+
+    private static boolean isLetter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r';
+    }
+
+
+    /**
+     * A cell of a row, holding its html as Jsoup would serialize it.
+     */
+    private static class Cell {
+
+        private final StringBuilder html = new StringBuilder();
+
+        // the number of elements directly in the cell, and the number of elements currently open in it.
+        private int elements, depth;
+
+
+        /**
+         * @return The trimmed html of the cell, as returned by Element#html().
+         */
+        @Override
+        public String toString() {
+            return html.toString().trim();
+        }
+    }
+}
@@ -18,17 +18,20 @@ package com.ccstats.analysis.worker;
 
 
 import com.ccstats.analysis.TransactionPool;
+import com.ccstats.data.Dates;
+import com.ccstats.data.Money;
 import com.ccstats.data.Transaction;
 import com.ccstats.input.CreditStatement;
+import com.ccstats.input.StatementSource;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
-import java.io.File;
 import java.io.IOException;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 
 /**
@@ -39,6 +42,10 @@ import java.time.format.DateTimeFormatter;
 public class TransactionsExtractor {
 
     private Document doc;
+    private ImportMark mark;
+
+    // the transactions of a statement read through a parse cache, in which case the document is not parsed.
+    private TransactionPool cached;
 
 
     /**
@@ -48,6 +55,8 @@ public class TransactionsExtractor {
     private static final int AUTHORIZED_TRANSACTIONS = 0, POSTED_TRANSACTIONS = 1;
     private static final int TRANSACTION_DESCRIPTION = 0, TRANSACTION_DEBIT_AMOUNT = 1, TRANSACTION_CREDIT_AMOUNT = 2;
 
+    private static final String[] DESCRIPTION_FILLERS = new String[]{"<br>", "<!-- FCOO  -->", "\n"};
+
     /**
      * Constructor for the TransactionsExtractor that requires the statement as a parameter.
      * Immediately begins extracting all needed data from the statement.
@@ -55,7 +64,7 @@ public class TransactionsExtractor {
      * @param statement The CreditStatement instance provided by the user.
      */
     public TransactionsExtractor(CreditStatement statement) throws IOException {
-        this.doc = Jsoup.parse(new File(statement.getAbsolutePath()), "UTF-8");
+        this.doc = parse(statement, "UTF-8");
     }
 
 
@@ -67,7 +76,41 @@ public class TransactionsExtractor {
      * @param baseUri   The Text Encoding.
      */
     public TransactionsExtractor(CreditStatement statement, String baseUri) throws IOException {
-        this.doc = Jsoup.parse(new File(statement.getAbsolutePath()), baseUri);
+        this.doc = parse(statement, baseUri);
+    }
+
+
+    /**
+     * Constructor for the TransactionsExtractor that reads the statement from a source, decompressing it
+     * if it is gzip-compressed.
+     *
+     * @param source The StatementSource of the statement.
+     */
+    public TransactionsExtractor(StatementSource source) throws IOException {
+        this.doc = parse(source, "");
+    }
+
+
+    /**
+     * Constructor for the TransactionsExtractor that reads the statement through a parse cache. The
+     * statement is only parsed if the cache holds no entry for its content, and its transactions are then
+     * stored in the cache for later extractors.
+     *
+     * @param statement The CreditStatement instance provided by the user.
+     * @param cache     The ParseCache of the statement.
+     */
+    public TransactionsExtractor(CreditStatement statement, ParseCache cache) throws IOException {
+        ParseCache.Lookup lookup = cache.lookup(statement, StandardCharsets.UTF_8);
+        this.cached = lookup.getTransactions();
+
+        if (!lookup.isHit()) {
+            this.doc = parse(statement, "UTF-8");
+            this.cached = parseTransactions(null);
+
+            if (cached != null) {
+                cache.put(lookup, cached);
+            }
+        }
     }
 
 
@@ -98,7 +141,8 @@ public class TransactionsExtractor {
      * @param statement A CreditStatement object that holds the path to the source
      */
     public void setSource(CreditStatement statement) throws IOException {
-        this.doc = Jsoup.parse(new File(statement.getAbsolutePath()), "UTF-8");
+        this.cached = null;
+        this.doc = parse(statement, "UTF-8");
     }
 
     /**
@@ -108,7 +152,18 @@ public class TransactionsExtractor {
      * @param charset   The charset name
      */
     public void setSource(CreditStatement statement, String charset) throws IOException {
-        this.doc = Jsoup.parse(new File(statement.getAbsolutePath()), charset);
+        this.cached = null;
+        this.doc = parse(statement, charset);
+    }
+
+    /**
+     * Overrides the instance source from which the transactions are being parsed from.
+     *
+     * @param source The StatementSource of the statement
+     */
+    public void setSource(StatementSource source) throws IOException {
+        this.cached = null;
+        this.doc = parse(source, "");
     }
 
     /**
@@ -117,6 +172,7 @@ public class TransactionsExtractor {
      * @param html A String object that stores the HTML
      */
     public void setSource(String html) {
+        this.cached = null;
         this.doc = Jsoup.parse(html, "UTF-8");
     }
 
@@ -127,10 +183,22 @@ public class TransactionsExtractor {
      * @param charset The charset name
      */
     public void setSource(String html, String charset) {
+        this.cached = null;
         this.doc = Jsoup.parse(html, charset);
     }
 
 
+    /**
+     * Sets the high-water mark of the transactions already ingested from the statement. The rows of the
+     * statement that the mark covers are skipped by read().
+     *
+     * @param mark The ImportMark of the ingested transactions, or null to read every row.
+     */
+    public void setImportMark(ImportMark mark) {
+        this.mark = mark;
+    }
+
+
     /**
      * Parses the source, instantiates transaction objects from the read data, and appends them to
      * a TransactionPool.
@@ -138,37 +206,51 @@ public class TransactionsExtractor {
      * @return The TransactionPool object containing all read transactions.
      */
     public TransactionPool read() {
-        if (this.doc == null) {
+        if (this.cached != null) {
+            // the pool is handed out as a copy-on-write view, leaving the cached transactions untouched.
+            TransactionPool transactions = cached.query().collect();
+            if (mark != null) {
+                transactions.removeIf(mark.boundary()::claim);
+            }
+
+            return transactions;
+        } else if (this.doc == null) {
             return null;
         }
 
-        return parseTransactions();
+        return parseTransactions(mark == null ? null : mark.boundary());
     }
 
     /**
      * Parses the transactions present in the document.
      *
+     * @param boundary The import mark of the read, or null.
+     *
      * @return A TransactionPool object containing all parsed transactions.
      */
-    private TransactionPool parseTransactions() {
+    private TransactionPool parseTransactions(ImportMark.Boundary boundary) {
         Elements tables = this.doc.select("table");
 
         // checking, before and after removing the header table, if the tables json array is empty.
+        TransactionPool p;
         if (tables.isEmpty() || tables.remove(0) == null || tables.isEmpty()) {
             return null;
         } else if (tables.size() >= 2) {
-            TransactionPool p;
-
-            p = extractTransactions(tables.get(AUTHORIZED_TRANSACTIONS), true);
-            p.addAll(extractTransactions(tables.get(POSTED_TRANSACTIONS), false));
-
-            return p;
+            p = extractTransactions(tables.get(AUTHORIZED_TRANSACTIONS), true, boundary);
+            p.addAll(extractTransactions(tables.get(POSTED_TRANSACTIONS), false, boundary));
         } else {
 
             // there is only posted or authorized transactions.
             // TODO: investigate solution for incorrect "false" value passing of authorized parameter.
-            return extractTransactions(tables.first(), false);
+            p = extractTransactions(tables.first(), false, boundary);
         }
+
+        // the rows on the day of the mark are claimed in pool order, like the pools of the parse cache are.
+        if (boundary != null) {
+            p.removeIf(boundary::claim);
+        }
+
+        return p;
     }
 
 
@@ -176,46 +258,144 @@ public class TransactionsExtractor {
      * Extracts transactions from the provided table element.
      *
      * @param table The JSoup element representing the table
+     * @param boundary The import mark of the read, or null. Rows dated before it are skipped.
      *
      * @return A TransactionPool object of the Transactions.
      */
-    private TransactionPool extractTransactions(Element table, boolean authorized) {
-        String[] descriptionFillers = new String[]{"<br>", "<!-- FCOO  -->", "\n"};
+    private TransactionPool extractTransactions(Element table, boolean authorized, ImportMark.Boundary boundary) {
         TransactionPool transactions = new TransactionPool();
         Elements rows = table.getElementsByTag("tr");
         rows.remove(0); // this row is just for the headers of the table (description, pending debit, pending credit)
 
-        // all dates provided in the statement are in the format MMM dd, yyy (i.e Dec 14, 2015)
-        DateTimeFormatter format = DateTimeFormatter.ofPattern("MMM dd, yyyy");
-
         for (Element transaction : rows) {
-            Elements data = transaction.getElementsByTag("td");
-            Element debit, credit;
-            LocalDate date;
-            String description;
-            double amount;
-
             // the date is set as the table header ('th' tag) for every row, and not a 'td' tag
-            date = LocalDate.parse(transaction.getElementsByTag("th").get(0).html().trim(), format);
-            description = data.get(TRANSACTION_DESCRIPTION).html().trim();
-            for (String filler : descriptionFillers) {
-                description = description.replace(filler, "");
+            String date = transaction.getElementsByTag("th").get(0).html();
+            if (boundary != null && boundary.isBefore(Dates.parseStatementDate(date))) {
+                continue;
             }
 
-            debit = data.get(TRANSACTION_DEBIT_AMOUNT);
-            credit = data.get(TRANSACTION_CREDIT_AMOUNT);
+            Elements data = transaction.getElementsByTag("td");
+            Element debit = data.get(TRANSACTION_DEBIT_AMOUNT);
+            String credit = data.size() > TRANSACTION_CREDIT_AMOUNT ? data.get(TRANSACTION_CREDIT_AMOUNT).html() : "";
+
+            transactions.add(toTransaction(date, data.get(TRANSACTION_DESCRIPTION).html(), debit.html(),
+                    debit.children().size() == 0, credit, authorized));
+        }
+
+        return transactions;
+    }
+
+
+    /**
+     * Creates the transaction of a table row from the html of its cells. The streaming extractor reads
+     * rows through this method as well, so both extractors give the same transactions.
+     *
+     * @param date          The html of the date cell.
+     * @param description   The html of the description cell.
+     * @param debit         The html of the debit amount cell.
+     * @param debitIsText   Whether the debit amount cell holds no elements.
+     * @param credit        The html of the credit amount cell, or an empty String if the row has none.
+     * @param authorized    Whether the row belongs to the authorized transactions.
+     *
+     * @return The Transaction of the row.
+     */
+    static Transaction toTransaction(String date, String description, String debit, boolean debitIsText,
+                                     String credit, boolean authorized) {
+        long amount;
+
+        // categorizing the transaction as either a debit or credit transaction.
+        // A Debit transaction takes a negative sign to indicate a decrease in credit.
+        if (debitIsText && !debit.isEmpty()) {
+            amount = Money.parseStatementAmount(debit);
+        } else {
+            amount = - Money.parseStatementAmount(credit);
+        }
+
+        return Transaction.ofCents(normalizeDescription(description), Dates.parseStatementDate(date), amount,
+                authorized);
+    }
+
 
-            // categorizing the transaction as either a debit or credit transaction.
-            // A Debit transaction takes a negative sign to indicate a decrease in credit.
-            if (debit.children().size() == 0 && !debit.html().isEmpty()) {
-                amount = Double.valueOf(debit.html().trim().replace("$", ""));
-            } else {
-                amount = - Double.valueOf(credit.html().trim().replace(",", "").replace("$", ""));
+    /**
+     * Trims the html of a description and strips its fillers (line breaks and comments) in a single pass.
+     *
+     * @param html The html of the description cell.
+     *
+     * @return The description.
+     */
+    public static String normalizeDescription(String html) {
+        int from = 0, to = html.length();
+        while (from < to && html.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && html.charAt(to - 1) <= ' ') {
+            to--;
+        }
+
+        char[] description = null;
+        int length = 0, copied = from;
+
+        for (int i = from; i < to; ) {
+            // every filler starts with either a tag or a line break.
+            char c = html.charAt(i);
+            String filler = c == '<' || c == '\n' ? fillerAt(html, i, to) : null;
+            if (filler == null) {
+                i++;
+                continue;
+            }
+
+            if (description == null) {
+                description = new char[to - from];
             }
 
-            transactions.add(new Transaction(description, date, amount, authorized));
+            html.getChars(copied, i, description, length);
+            length += i - copied;
+            i += filler.length();
+            copied = i;
         }
 
-        return transactions;
+        // most descriptions hold no filler, and are returned without copying.
+        if (description == null) {
+            return html.substring(from, to);
+        }
+
+        html.getChars(copied, to, description, length);
+        return new String(description, 0, length + to - copied);
+    }
+
+
+    /**
+     *
+     * @return The filler starting at the index, or null.
+     */
+    private static String fillerAt(String html, int i, int to) {
+        for (String filler : DESCRIPTION_FILLERS) {
+            if (i + filler.length() <= to && html.startsWith(filler, i)) {
+                return filler;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Parses a statement file, which may be gzip-compressed.
+     *
+     * @return The Document of the statement.
+     */
+    private static Document parse(CreditStatement statement, String charset) throws IOException {
+        return parse(StatementSource.of(statement, Charset.forName(charset)), statement.getAbsolutePath());
+    }
+
+
+    /**
+     *
+     * @return The Document of the statement held by the source.
+     */
+    private static Document parse(StatementSource source, String baseUri) throws IOException {
+        try (InputStream in = source.openStream()) {
+            return Jsoup.parse(in, source.getCharset().name(), baseUri);
+        }
     }
-}
\ No newline at end of file
+}
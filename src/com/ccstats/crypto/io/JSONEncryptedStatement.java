@@ -19,6 +19,8 @@ package com.ccstats.crypto.io;
 
 import com.ccstats.analysis.TransactionPool;
 import com.ccstats.crypto.AESWorker;
+import com.ccstats.data.Dates;
+import com.ccstats.data.Money;
 import com.ccstats.data.Statement;
 import com.ccstats.data.Transaction;
 import org.apache.commons.codec.DecoderException;
@@ -39,7 +41,8 @@ import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.InvalidParameterSpecException;
-import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -111,7 +114,7 @@ public class JSONEncryptedStatement {
 
                     date = new String(worker.encrypt(password, transaction.getDate().toString()));
                     description = new String(worker.encrypt(password, transaction.getDescription()));
-                    amount = new String(worker.encrypt(password, String.valueOf(transaction.getAmount())));
+                    amount = new String(worker.encrypt(password, Money.format(transaction.getAmountCents())));
                     authorized = new String(worker.encrypt(password, String.valueOf(transaction.isAuthorized())));
 
                     transactionObj.put("date", date);
@@ -183,7 +186,7 @@ public class JSONEncryptedStatement {
      * @return A statement object containing all the discovered transactions as a pool.
      */
     public Statement read(String absolutePath, String password) throws IOException, ParseException, BadPaddingException {
-        TransactionPool transactions = new TransactionPool();
+        List<Transaction> transactions = new ArrayList<>();
         JSONParser parser = new JSONParser();
 
         JSONObject main = (JSONObject) parser.parse(new FileReader(absolutePath));
@@ -191,7 +194,6 @@ public class JSONEncryptedStatement {
 
         worker.setKeyLength(Integer.valueOf((String) main.get("aes-key-length")));
         try {
-
             JSONObject current;
             String date, description, amount, authorized;
             for (Object o : encryptedTransactions.values()) {
@@ -201,7 +203,8 @@ public class JSONEncryptedStatement {
                 amount = new String(worker.decrypt(password, (String) current.get("amount")));
                 authorized = new String(worker.decrypt(password, (String) current.get("authorized")));
 
-                transactions.add(new Transaction(description, LocalDate.parse(date), Double.valueOf(amount),
+                // older statements hold the amount as written by String.valueOf(double), which Money accepts too.
+                transactions.add(Transaction.ofCents(description, Dates.parseIsoDate(date), Money.parse(amount),
                         Boolean.valueOf(authorized)));
             }
 
@@ -211,7 +214,9 @@ public class JSONEncryptedStatement {
         }
 
 
-        return new Statement(transactions);
+        // the transactions come in hash order, so they are bulk loaded once all are read rather than
+        // inserted one at a time.
+        return new Statement(new TransactionPool(transactions));
     }
 
 
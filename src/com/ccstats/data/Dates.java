@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.data;
+
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+
+/**
+ * Parsers for the two date formats transactions are read in: the MMM dd, yyyy format of statements
+ * (i.e Dec 14, 2015) and the ISO format of encrypted statements (i.e 2015-12-14). Well formed dates are
+ * read straight off the characters, without the intermediate objects of a DateTimeFormatter; anything
+ * else is handed to the formatter, so the results and errors are always those of LocalDate#parse.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public final class Dates {
+
+    // all dates provided in the statement are in the format MMM dd, yyy (i.e Dec 14, 2015)
+    private static final DateTimeFormatter STATEMENT_DATE = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+
+    private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+
+
+    private Dates() {
+
+    }
+
+
+    /**
+     * Parses a statement date (i.e Dec 14, 2015). Surrounding whitespace is ignored.
+     *
+     * @param text The date.
+     *
+     * @return The LocalDate.
+     * @throws java.time.format.DateTimeParseException If the text is not a statement date.
+     */
+    public static LocalDate parseStatementDate(CharSequence text) {
+        int from = 0, to = text.length();
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+
+        if (to - from == 12 && text.charAt(from + 3) == ' ' && text.charAt(from + 6) == ','
+                && text.charAt(from + 7) == ' ') {
+            int month = month(text, from);
+            int day = digits(text, from + 4, from + 6);
+            int year = digits(text, from + 8, from + 12);
+
+            if (month > 0 && day > 0 && year > 0 && isValid(year, month, day)) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+
+        return LocalDate.parse(text.subSequence(from, to), STATEMENT_DATE);
+    }
+
+
+    /**
+     * Parses an ISO date (i.e 2015-12-14).
+     *
+     * @param text The date.
+     *
+     * @return The LocalDate.
+     * @throws java.time.format.DateTimeParseException If the text is not an ISO date.
+     */
+    public static LocalDate parseIsoDate(CharSequence text) {
+        if (text.length() == 10 && text.charAt(4) == '-' && text.charAt(7) == '-') {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+
+            if (year >= 0 && month >= 1 && month <= 12 && day > 0 && isValid(year, month, day)) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+
+        return LocalDate.parse(text);
+    }
+
+
+    /**
+     * Reads an English month abbreviation.
+     *
+     * @return The month, from 1 to 12, or 0 if the text does not start with a month abbreviation.
+     */
+    private static int month(CharSequence text, int from) {
+        for (int month = 0; month < 12; month++) {
+            if (MONTHS.charAt(month * 3) == text.charAt(from) && MONTHS.charAt(month * 3 + 1) == text.charAt(from + 1)
+                    && MONTHS.charAt(month * 3 + 2) == text.charAt(from + 2)) {
+                return month + 1;
+            }
+        }
+
+        return 0;
+    }
+
+
+    /**
+     * Reads the decimal number held by a range of the text.
+     *
+     * @return The number, or -1 if the range holds anything but digits.
+     */
+    private static int digits(CharSequence text, int from, int to) {
+        int value = 0;
+
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+
+            value = value * 10 + (c - '0');
+        }
+
+        return value;
+    }
+
+
+    /**
+     *
+     * @return True if the day exists in the month of the year.
+     */
+    private static boolean isValid(int year, int month, int day) {
+        if (month == 2) {
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return day <= (leap ? 29 : 28);
+        }
+
+        return day <= (month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31);
+    }
+}
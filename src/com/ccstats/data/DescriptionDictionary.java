@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.data;
+
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Maps every distinct transaction description to a small integer id. A statement repeats the same
+ * few hundred merchants over and over, so storing the id instead of the String keeps a single copy
+ * of every description.
+ *
+ * Every TransactionPool encodes its descriptions with a dictionary of its own, which its views and copies
+ * share. Ids are never reused, as the rows of a pool may still refer to any of them, but the dictionary is
+ * only reachable from its pools: once a statement is discarded, so are its descriptions and their index.
+ * Rows moved between pools are re-encoded by description.
+ *
+ * Descriptions are also indexed as they are interned, so that the descriptions equal to or containing a
+ * keyword, ignoring case, are looked up without comparing the keyword against every description.
+ *
+ * Dictionaries are safe to use from several threads: looking up an interned description never locks, and
+ * new descriptions are added one at a time.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public class DescriptionDictionary {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final DescriptionIndex index = new DescriptionIndex();
+
+    // republished on every new description, so a reader holding an id always sees its description.
+    private volatile String[] descriptions = new String[64];
+    private volatile int size;
+
+
+    /**
+     * Acquires the id of the description, assigning it a new one if the description has never been
+     * seen by this dictionary.
+     *
+     * @param description The description of a transaction.
+     *
+     * @return The id of the description.
+     */
+    public int intern(String description) {
+        Integer id = ids.get(description);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (this) {
+            id = ids.get(description);
+            if (id != null) {
+                return id;
+            }
+
+            String[] descriptions = this.descriptions;
+            if (size == descriptions.length) {
+                descriptions = Arrays.copyOf(descriptions, size * 2);
+            }
+
+            descriptions[size] = description;
+            index.add(size, description);
+
+            this.descriptions = descriptions;
+            ids.put(description, size);
+
+            return size++;
+        }
+    }
+
+
+    /**
+     * Acquires the id of the description without interning it.
+     *
+     * @param description The description of a transaction.
+     *
+     * @return The id of the description, or -1 if it has never been seen by this dictionary.
+     */
+    public int indexOf(String description) {
+        Integer id = ids.get(description);
+        return id == null ? -1 : id;
+    }
+
+
+    /**
+     * Looks up the descriptions that are equal to the keyword, ignoring case.
+     *
+     * @param keyword The keyword.
+     *
+     * @return The ids of the matching descriptions, in ascending order.
+     */
+    public synchronized int[] lookup(String keyword) {
+        return index.lookup(keyword);
+    }
+
+
+    /**
+     * Looks up the descriptions that contain the keyword, ignoring case.
+     *
+     * @param keyword The keyword.
+     *
+     * @return The ids of the matching descriptions, in ascending order.
+     */
+    public synchronized int[] search(String keyword) {
+        return index.search(keyword);
+    }
+
+
+    /**
+     *
+     * @param id The id of a description previously interned by this dictionary.
+     *
+     * @return The description.
+     */
+    public String get(int id) {
+        return descriptions[id];
+    }
+
+
+    /**
+     *
+     * @return The number of distinct descriptions held by this dictionary.
+     */
+    public int size() {
+        return size;
+    }
+}
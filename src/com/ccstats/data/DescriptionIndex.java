@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.data;
+
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+
+/**
+ * Case-folded inverted index over the descriptions of a DescriptionDictionary. Every description is
+ * folded once as it is interned, and its id is appended to the posting list of its folded form and to the
+ * posting lists of every three character sequence (trigram) it contains. Ids are interned in ascending
+ * order, so every posting list is sorted without any extra work.
+ *
+ * A substring lookup intersects the posting lists of the trigrams of the fragment, and only the
+ * descriptions left in the intersection are compared against the fragment.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+class DescriptionIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final HashMap<String, Postings> descriptions = new HashMap<>();
+    private final HashMap<Long, Postings> trigrams = new HashMap<>();
+    private String[] folded = new String[64];
+    private int size;
+
+
+    /**
+     * Indexes the description of the next id.
+     *
+     * @param id          The id of the description, one past the last indexed id.
+     * @param description The description.
+     */
+    void add(int id, String description) {
+        String key = fold(description);
+
+        if (id == folded.length) {
+            folded = Arrays.copyOf(folded, id * 2);
+        }
+        folded[id] = key;
+        size = id + 1;
+
+        descriptions.computeIfAbsent(key, k -> new Postings()).add(id);
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            trigrams.computeIfAbsent(trigram(key, i), k -> new Postings()).add(id);
+        }
+    }
+
+
+    /**
+     * Looks up the descriptions that are equal to the provided one, ignoring case.
+     *
+     * @param description The description.
+     *
+     * @return The sorted ids of the matching descriptions.
+     */
+    int[] lookup(String description) {
+        Postings postings = descriptions.get(fold(description));
+        return postings == null ? NONE : postings.toArray();
+    }
+
+
+    /**
+     * Looks up the descriptions that contain the provided fragment, ignoring case. Fragments shorter than a
+     * trigram are compared against every folded description instead.
+     *
+     * @param fragment The fragment.
+     *
+     * @return The sorted ids of the matching descriptions.
+     */
+    int[] search(String fragment) {
+        String key = fold(fragment);
+        int[] candidates = key.length() < 3 ? null : candidates(key);
+
+        int[] matches = new int[candidates == null ? size : candidates.length];
+        int count = 0;
+
+        for (int i = 0; i < matches.length; i++) {
+            int id = candidates == null ? i : candidates[i];
+            if (folded[id].contains(key)) {
+                matches[count++] = id;
+            }
+        }
+
+        return count == matches.length ? matches : Arrays.copyOf(matches, count);
+    }
+
+
+    /**
+     * Intersects the posting lists of every distinct trigram of the folded fragment, shortest first.
+     *
+     * @param key The folded fragment, at least three characters long.
+     *
+     * @return The sorted ids of the descriptions holding every trigram of the fragment.
+     */
+    private int[] candidates(String key) {
+        HashSet<Long> seen = new HashSet<>();
+        Postings[] lists = new Postings[key.length() - 2];
+        int count = 0;
+
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            long trigram = trigram(key, i);
+            if (!seen.add(trigram)) {
+                continue;
+            }
+
+            Postings postings = trigrams.get(trigram);
+            if (postings == null) {
+                return NONE;
+            }
+
+            lists[count++] = postings;
+        }
+
+        Arrays.sort(lists, 0, count, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] result = lists[0].toArray();
+        int length = result.length;
+
+        for (int l = 1; l < count && length > 0; l++) {
+            int[] other = lists[l].ids;
+            int kept = 0;
+
+            for (int i = 0, j = 0; i < length && j < lists[l].size; ) {
+                if (result[i] < other[j]) {
+                    i++;
+                } else if (result[i] > other[j]) {
+                    j++;
+                } else {
+                    result[kept++] = result[i++];
+                    j++;
+                }
+            }
+
+            length = kept;
+        }
+
+        return Arrays.copyOf(result, length);
+    }
+
+
+    /**
+     * Folds the case of every character the way String#equalsIgnoreCase(String) compares them.
+     *
+     * @param text The text.
+     *
+     * @return The folded text.
+     */
+    static String fold(String text) {
+        char[] chars = text.toCharArray();
+
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+
+        return new String(chars);
+    }
+
+
+    /**
+     * Packs the three characters starting at the index into a single key.
+     */
+    private static long trigram(String key, int i) {
+        return ((long) key.charAt(i) << 32) | ((long) key.charAt(i + 1) << 16) | key.charAt(i + 2);
+    }
+
+
+    /**
+     * A growable, sorted list of description ids.
+     */
+    private static class Postings {
+
+        private int[] ids = new int[4];
+        private int size;
+
+
+        void add(int id) {
+            // a description holding the same trigram twice is only listed once.
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+
+            ids[size++] = id;
+        }
+
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.data;
+
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+
+/**
+ * Conversions between amounts in dollars and the fixed-point amounts in cents that transactions are
+ * stored and summed as. Statement amounts never go beyond two decimal places, so any further decimal
+ * places are rounded off to the nearest cent.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public final class Money {
+
+    private Money() {
+
+    }
+
+
+    /**
+     * Converts an amount in dollars to the number of cents it holds.
+     *
+     * @param amount The amount in dollars.
+     *
+     * @return The amount in cents.
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+
+    /**
+     *
+     * @param cents The amount in cents.
+     *
+     * @return The closest amount in dollars.
+     */
+    public static double toDollars(long cents) {
+        return cents / 100.0;
+    }
+
+
+    /**
+     * Parses a decimal amount in dollars (i.e -12.5 or 1204.37) exactly into cents. Amounts in scientific
+     * notation, as written by String#valueOf(double) for large and small amounts (i.e 1.2E7), are accepted
+     * as well.
+     *
+     * @param text The amount in dollars.
+     *
+     * @return The amount in cents.
+     * @throws NumberFormatException If the text is not a decimal amount.
+     */
+    public static long parse(String text) {
+        return parse(text, 0, text.length(), false);
+    }
+
+
+    /**
+     * Parses an amount as written in statements (i.e $1,234.56 or -$12.50) into cents, without creating any
+     * intermediate String. Surrounding whitespace is ignored, and so are the dollar signs and the thousands
+     * separators.
+     *
+     * @param text The amount in dollars.
+     *
+     * @return The amount in cents.
+     * @throws NumberFormatException If the text is not a decimal amount.
+     */
+    public static long parseStatementAmount(CharSequence text) {
+        int from = 0, to = text.length();
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+
+        return parse(text, from, to, true);
+    }
+
+
+    /**
+     * Parses the decimal amount held by a range of the text.
+     *
+     * @param text      The text holding the amount.
+     * @param from      The first (inclusive) index of the amount.
+     * @param to        The last (exclusive) index of the amount.
+     * @param statement Whether the dollar signs and the thousands separators are ignored.
+     *
+     * @return The amount in cents.
+     */
+    private static long parse(CharSequence text, int from, int to, boolean statement) {
+        int i = from;
+        boolean negative = false;
+
+        while (statement && i < to && text.charAt(i) == '$') {
+            i++;
+        }
+
+        if (i < to && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+
+        long cents = 0;
+        int digits = 0, decimals = -1;
+
+        // the common case, at most two decimal places and no exponent, is parsed without any allocation.
+        for (; i < to; i++) {
+            char c = text.charAt(i);
+
+            if (c >= '0' && c <= '9' && decimals < 2 && digits < 17) {
+                cents = cents * 10 + (c - '0');
+                digits++;
+                decimals += decimals >= 0 ? 1 : 0;
+            } else if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (!statement || (c != '$' && c != ',')) {
+                return parseExact(strip(text, from, to, statement));
+            }
+        }
+
+        if (digits == 0) {
+            throw new NumberFormatException("Not an amount: \"" + text.subSequence(from, to) + "\"");
+        }
+
+        for (int d = Math.max(decimals, 0); d < 2; d++) {
+            cents *= 10;
+        }
+
+        return negative ? -cents : cents;
+    }
+
+
+    /**
+     * Formats an amount in cents as a plain decimal amount in dollars with two decimal places (i.e -12.50).
+     *
+     * @param cents The amount in cents.
+     *
+     * @return The formatted amount.
+     */
+    public static String format(long cents) {
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+
+
+    /**
+     * Parses any decimal amount, rounding it to cents.
+     */
+    private static long parseExact(String text) {
+        try {
+            return new BigDecimal(text).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: \"" + text + "\"");
+        }
+    }
+
+
+    /**
+     * Copies a range of the text, leaving out the dollar signs and the thousands separators of statement amounts.
+     */
+    private static String strip(CharSequence text, int from, int to, boolean statement) {
+        StringBuilder stripped = new StringBuilder(to - from);
+
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (!statement || (c != '$' && c != ',')) {
+                stripped.append(c);
+            }
+        }
+
+        return stripped.toString();
+    }
+}
@@ -18,9 +18,15 @@
 package com.ccstats.data;
 
 
+import com.ccstats.analysis.CalendarRollups;
+import com.ccstats.analysis.GroupKey;
 import com.ccstats.analysis.TransactionPool;
+import com.ccstats.analysis.TransactionStatistics;
 import com.ccstats.analysis.worker.TransactionsExtractor;
 
+import java.time.LocalDate;
+import java.util.SortedMap;
+
 
 /**
  *
@@ -29,6 +35,9 @@ import com.ccstats.analysis.worker.TransactionsExtractor;
  */
 public class Statement extends TransactionPool {
 
+    // maintained by every mutation once enabled, null until then.
+    private CalendarRollups rollups;
+
     /**
      * Constructor for Statement. Calls the super method of the statistics class.
      *
@@ -40,31 +49,110 @@ public class Statement extends TransactionPool {
 
 
     /**
-     * @return The TransactionPool object of the authorized transactions.
+     * @return The lazily filtered TransactionPool view of the authorized transactions.
      */
     public TransactionPool getAuthorizedTransactions() {
-        TransactionPool authorized = new TransactionPool();
-        this.stream().filter(t -> t.isAuthorized()).forEach(authorized::add);
-        return authorized;
+        return getTransactionsByStatus(true);
     }
 
 
     /**
-     * @return The TransactionPool object of the posted transactions.
+     * @return The lazily filtered TransactionPool view of the posted transactions.
      */
     public TransactionPool getPostedTransactions() {
-        TransactionPool posted = new TransactionPool();
-        this.stream().filter(t -> !t.isAuthorized()).forEach(posted::add);
-        return posted;
+        return getTransactionsByStatus(false);
     }
 
 
     /**
-     * Merges a second statement into this statement.
+     * Merges a second statement into this statement, keeping every transaction of it. See
+     * merge(TransactionPool, boolean) to leave out the transactions of overlapping statements.
      *
      * @param other The Second statement being merged into this statement.
      */
     public void merge(Statement other) {
-        this.addAll(other);
+        this.merge(other, false);
+    }
+
+
+    /**
+     * Starts maintaining daily, weekly and monthly rollups of the statement. They are built with a single
+     * pass over the statement, and kept up to date by every addition, merge and removal afterwards.
+     */
+    public void enableRollups() {
+        if (rollups != null) {
+            return;
+        }
+
+        rollups = new CalendarRollups();
+        for (Transaction transaction : this) {
+            rollups.add((int) transaction.getDate().toEpochDay(), transaction.getAmountCents());
+        }
+    }
+
+
+    /**
+     *
+     * @return True if the rollups of the statement are maintained.
+     */
+    public boolean hasRollups() {
+        return rollups != null;
+    }
+
+
+    /**
+     * Acquires the rollup table of a calendar period.
+     *
+     * @param period GroupKey.DAY, GroupKey.WEEK or GroupKey.MONTH.
+     *
+     * @return The statistics of every bucket of the period holding transactions, by the first date of the bucket.
+     * @see CalendarRollups#getTable(GroupKey)
+     */
+    public SortedMap<LocalDate, TransactionStatistics> getRollup(GroupKey period) {
+        enableRollups();
+        return rollups.getTable(period);
+    }
+
+
+    /**
+     * Computes the statistics of all transactions from date1 up till date2 (inclusive). Once rollups are
+     * enabled, they are merged from the calendar buckets covering the range.
+     *
+     * @param date1 The beginning date.
+     * @param date2 The (inclusive) ending date.
+     *
+     * @return The TransactionStatistics of the transactions between the dates.
+     */
+    @Override
+    public TransactionStatistics getStatistics(LocalDate date1, LocalDate date2) {
+        if (rollups == null) {
+            return super.getStatistics(date1, date2);
+        }
+
+        return rollups.getStatistics(date1, date2);
+    }
+
+
+    @Override
+    protected void rowAdded(int day, long cents) {
+        if (rollups != null) {
+            rollups.add(day, cents);
+        }
+    }
+
+
+    @Override
+    protected void rowRemoved(int day, long cents) {
+        if (rollups != null) {
+            rollups.remove(day, cents);
+        }
+    }
+
+
+    @Override
+    protected void rowsCleared() {
+        if (rollups != null) {
+            rollups.clear();
+        }
     }
 }
\ No newline at end of file
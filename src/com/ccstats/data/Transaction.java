@@ -29,7 +29,7 @@ public class Transaction {
 
     private String description;
     private LocalDate date;
-    private double amount;
+    private long amount; // in cents
     private boolean authorized;
 
 
@@ -47,6 +47,15 @@ public class Transaction {
      * @param authorized The transaction's current status (authorized or posted)
      */
     public Transaction(String description, LocalDate date, double amount,  boolean authorized) {
+        this(description, date, authorized, Money.toCents(amount));
+    }
+
+
+    /**
+     * Constructs a transaction from an amount in cents. The parameters are ordered apart from the public
+     * constructor so that the two never compete for the same arguments.
+     */
+    private Transaction(String description, LocalDate date, boolean authorized, long amount) {
         this.description = description.trim();
         this.date = date;
         this.amount = amount;
@@ -54,6 +63,20 @@ public class Transaction {
     }
 
 
+    /**
+     * Creates a transaction from an exact amount in cents.
+     *
+     * @param description The Description of the transaction.
+     * @param date The date the transaction has been recorded.
+     * @param cents The amount due from the transaction, in cents.
+     * @param authorized The transaction's current status (authorized or posted)
+     *
+     * @return The Transaction.
+     */
+    public static Transaction ofCents(String description, LocalDate date, long cents, boolean authorized) {
+        return new Transaction(description, date, authorized, cents);
+    }
+
 
     /**
      *
@@ -78,6 +101,15 @@ public class Transaction {
      * @return The amount deducted from the credit limit.
      */
     public double getAmount() {
+        return Money.toDollars(amount);
+    }
+
+
+    /**
+     *
+     * @return The exact amount deducted from the credit limit, in cents.
+     */
+    public long getAmountCents() {
         return amount;
     }
 
@@ -122,10 +154,23 @@ public class Transaction {
             return true;
         } else {
             Transaction transaction = (Transaction) other;
-            boolean equalAmount = this.getAmount() == transaction.getAmount();
+            boolean equalAmount = this.getAmountCents() == transaction.getAmountCents();
             boolean equalName = this.getDescription().equals(transaction.getDescription());
             return equalAmount && equalName && transaction.isAuthorized() == this.isAuthorized();
         }
     }
 
+
+    /**
+     * Overriding the hashCode() Object method to stay consistent with equals(Object). Only the attributes
+     * compared by equals(Object) take part in the hash.
+     *
+     * @return The hash code of the transaction.
+     */
+    @Override
+    public int hashCode() {
+        int hash = getDescription().hashCode();
+        hash = 31 * hash + Long.hashCode(getAmountCents());
+        return 31 * hash + Boolean.hashCode(isAuthorized());
+    }
 }
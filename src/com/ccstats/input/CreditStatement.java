@@ -50,9 +50,15 @@ public class CreditStatement {
             throw new InvalidStatementPathException("The path of the file specified does not exist!");
         }
 
-        if (!this.filePath.toString().endsWith(".html") && !this.filePath.toString().endsWith(".htm")) {
+        // gzip-compressed statements are decompressed as they are read.
+        String name = this.filePath.toString();
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - ".gz".length());
+        }
+
+        if (!name.endsWith(".html") && !name.endsWith(".htm")) {
             throw new InvalidStatementPathException("File specified has an invalid file extension"
-                    + " (.html or .htm only!)");
+                    + " (.html, .htm, .html.gz or .htm.gz only!)");
         }
     }
 
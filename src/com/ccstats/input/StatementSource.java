@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2026 Ahmed Sakr
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ccstats.input;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+
+/**
+ * The bytes of a statement, read from a stream, a channel or a memory-mapped file. Gzip-compressed
+ * statements are recognized by their magic bytes and decompressed as they are read, and the text is
+ * decoded incrementally by the Reader of the source, so a statement never has to be held as a whole
+ * String or copied to a temporary file.
+ *
+ * Sources over a stream or a channel can only be opened once; sources over a file can be opened as many
+ * times as needed.
+ *
+ * @author Ahmed Sakr
+ * @since October 16, 2026.
+ */
+public abstract class StatementSource {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private final Charset charset;
+
+
+    /**
+     * Constructor for the StatementSource class.
+     *
+     * @param charset The charset the statement is encoded in.
+     */
+    protected StatementSource(Charset charset) {
+        this.charset = charset;
+    }
+
+
+    /**
+     * Creates the source of a statement read from a stream.
+     *
+     * @param in      The stream of the statement, which is closed once the statement has been read.
+     * @param charset The charset the statement is encoded in.
+     *
+     * @return The StatementSource.
+     */
+    public static StatementSource of(InputStream in, Charset charset) {
+        return new StatementSource(charset) {
+            private boolean opened;
+
+            @Override
+            protected InputStream openRaw() {
+                if (opened) {
+                    throw new IllegalStateException("The statement stream has already been read.");
+                }
+
+                opened = true;
+                return in;
+            }
+        };
+    }
+
+
+    /**
+     * Creates the source of a statement read from a channel.
+     *
+     * @param channel The channel of the statement, which is closed once the statement has been read.
+     * @param charset The charset the statement is encoded in.
+     *
+     * @return The StatementSource.
+     */
+    public static StatementSource of(ReadableByteChannel channel, Charset charset) {
+        return of(Channels.newInputStream(channel), charset);
+    }
+
+
+    /**
+     * Creates the source of a statement file, which is memory-mapped when it is read.
+     *
+     * @param path    The path of the statement.
+     * @param charset The charset the statement is encoded in.
+     *
+     * @return The StatementSource.
+     */
+    public static StatementSource mapped(Path path, Charset charset) {
+        return new StatementSource(charset) {
+            @Override
+            protected InputStream openRaw() throws IOException {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    // a mapping cannot go beyond 2GB, which no statement comes close to.
+                    if (channel.size() > Integer.MAX_VALUE) {
+                        throw new IOException("The statement is too large to be mapped: " + path);
+                    }
+
+                    // the mapping stays valid once the channel is closed.
+                    return new MappedInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                }
+            }
+        };
+    }
+
+
+    /**
+     * Creates the source of a statement file.
+     *
+     * @param statement The CreditStatement.
+     * @param charset   The charset the statement is encoded in.
+     *
+     * @return The memory-mapped StatementSource of the statement.
+     */
+    public static StatementSource of(CreditStatement statement, Charset charset) {
+        return mapped(Paths.get(statement.getAbsolutePath()), charset);
+    }
+
+
+    /**
+     *
+     * @return The charset the statement is encoded in.
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+
+    /**
+     * Opens the bytes of the statement, decompressing them if the statement is gzip-compressed.
+     *
+     * @return The InputStream of the statement.
+     * @throws IOException If the statement cannot be read.
+     */
+    public InputStream openStream() throws IOException {
+        PushbackInputStream in = new PushbackInputStream(openRaw(), 2);
+        byte[] magic = new byte[2];
+        int read = 0;
+
+        for (int n = 0; read < 2 && n >= 0; read += Math.max(n, 0)) {
+            n = in.read(magic, read, 2 - read);
+        }
+
+        in.unread(magic, 0, read);
+        if (read == 2 && ((magic[0] & 0xff) | (magic[1] & 0xff) << 8) == GZIP_MAGIC) {
+            return new GZIPInputStream(in, 8192);
+        }
+
+        return in;
+    }
+
+
+    /**
+     * Opens the text of the statement, decoded from its bytes as it is read.
+     *
+     * @return The Reader of the statement.
+     * @throws IOException If the statement cannot be read.
+     */
+    public Reader openReader() throws IOException {
+        return new InputStreamReader(openStream(), charset);
+    }
+
+
+    /**
+     * Opens the bytes of the statement as they are stored.
+     *
+     * @return The InputStream of the stored statement.
+     * @throws IOException If the statement cannot be read.
+     */
+    protected abstract InputStream openRaw() throws IOException;
+
+
+    /**
+     * An InputStream over the bytes of a memory-mapped file.
+     */
+    private static class MappedInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+
+        private MappedInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            } else if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            length = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, length);
+            return length;
+        }
+
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ccstats.test;
+
+import com.ccstats.analysis.worker.TransactionsExtractor;
+import com.ccstats.data.Dates;
+import com.ccstats.data.Money;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+
+public class ParserBenchmark {
+
+    private static final int ROWS = 100000, ROUNDS = 10;
+
+
+    public static void main(String[] args) {
+        String[] dates = new String[ROWS], amounts = new String[ROWS], descriptions = new String[ROWS];
+        String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+        Random random = new Random(42);
+
+        for (int i = 0; i < ROWS; i++) {
+            dates[i] = String.format(" %s %02d, %d ", months[random.nextInt(12)], 1 + random.nextInt(28),
+                    2010 + random.nextInt(10));
+            amounts[i] = String.format(" $%,.2f ", random.nextInt(500000) / 100.0);
+            descriptions[i] = random.nextBoolean() ? "  AMAZON MKTP<br>SEATTLE WA<!-- FCOO  -->\n" : " TIM HORTONS #1234 ";
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long checksum = 0;
+
+            long start = System.nanoTime();
+            DateTimeFormatter format = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+            String[] fillers = new String[]{"<br>", "<!-- FCOO  -->", "\n"};
+            for (int i = 0; i < ROWS; i++) {
+                String description = descriptions[i].trim();
+                for (String filler : fillers) {
+                    description = description.replace(filler, "");
+                }
+
+                LocalDate date = LocalDate.parse(dates[i].trim(), format);
+                // the extractors used to read amounts as doubles, which the Transaction converted to cents.
+                long amount = Money.toCents(Double.valueOf(amounts[i].trim().replace(",", "").replace("$", "")));
+                checksum += date.toEpochDay() + amount + description.length();
+            }
+            long replacing = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                String description = TransactionsExtractor.normalizeDescription(descriptions[i]);
+                LocalDate date = Dates.parseStatementDate(dates[i]);
+                long amount = Money.parseStatementAmount(amounts[i]);
+                checksum -= date.toEpochDay() + amount + description.length();
+            }
+            long scanning = System.nanoTime() - start;
+
+            System.out.printf("Round %d: formatter and replace %.1f ns/row, hand-written %.1f ns/row (%.1fx)%s\n",
+                    round + 1, (double) replacing / ROWS, (double) scanning / ROWS, (double) replacing / scanning,
+                    checksum == 0 ? "" : " MISMATCH");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.ccstats.test;
+
+import com.ccstats.analysis.TransactionPool;
+import com.ccstats.data.Transaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+
+
+public class PoolContract {
+
+    private static int failures;
+
+
+    public static void main(String[] args) {
+        Transaction a = Transaction.ofCents("A", LocalDate.of(2016, 1, 3), 500, false);
+        Transaction b = Transaction.ofCents("B", LocalDate.of(2016, 1, 2), 900, false);
+        Transaction c = Transaction.ofCents("C", LocalDate.of(2016, 1, 1), 100, false);
+        Comparator<Transaction> byAmount = Comparator.comparingDouble(Transaction::getAmount);
+
+        // sort must be rejected without touching the pool, whichever way it is reached.
+        TransactionPool pool = pool(a, b, c);
+        expect("sort", () -> pool.sort(byAmount), UnsupportedOperationException.class);
+        expect("Collections.sort", () -> Collections.sort(pool, byAmount), UnsupportedOperationException.class);
+        check("sort", pool, a, b, c);
+
+        TransactionPool view = pool.getTransactionsFrom(LocalDate.of(2016, 1, 1), LocalDate.of(2016, 1, 3));
+        expect("sort of a view", () -> view.sort(byAmount), UnsupportedOperationException.class);
+        check("sort of a view", view, a, b, c);
+
+        // replaceAll applies replacements that keep the date order, and rejects the others as a whole.
+        Transaction a2 = Transaction.ofCents("A", LocalDate.of(2016, 1, 3), 1000, false);
+        Transaction b2 = Transaction.ofCents("B", LocalDate.of(2016, 1, 2), 1800, false);
+        Transaction c2 = Transaction.ofCents("C", LocalDate.of(2016, 1, 1), 200, false);
+        pool.replaceAll(t -> Transaction.ofCents(t.getDescription(), t.getDate(), Math.round(t.getAmount() * 200),
+                t.isAuthorized()));
+        check("replaceAll", pool, a2, b2, c2);
+        check("replaceAll source view", view, a, b, c);
+
+        expect("reordering replaceAll", () -> pool.replaceAll(t -> t.getDescription().equals("C") ? a : t),
+                IllegalArgumentException.class);
+        check("reordering replaceAll", pool, a2, b2, c2);
+
+        // set keeps the index of the replaced transaction, or fails without touching the pool.
+        if (!pool.set(1, b).equals(b2)) {
+            report("set returned the wrong transaction");
+        }
+
+        check("set", pool, a2, b, c2);
+        expect("misplaced set", () -> pool.set(2, a), IllegalArgumentException.class);
+        check("misplaced set", pool, a2, b, c2);
+
+        ListIterator<Transaction> iterator = pool.listIterator();
+        iterator.next();
+        iterator.set(a);
+        iterator.next();
+        iterator.next();
+        expect("misplaced ListIterator.set", () -> iterator.set(a), IllegalArgumentException.class);
+        check("ListIterator.set", pool, a, b, c2);
+
+        // a replacement may take any place within a run of transactions of its date.
+        Transaction d = Transaction.ofCents("D", LocalDate.of(2016, 1, 2), 300, false);
+        TransactionPool run = pool(a, b, d, c);
+        run.set(1, d);
+        run.set(2, b);
+        check("set within a run", run, a, d, b, c);
+
+        System.out.println(failures == 0 ? "The pool keeps its contents." : failures + " checks failed.");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+
+    private static TransactionPool pool(Transaction... transactions) {
+        TransactionPool pool = new TransactionPool();
+        for (Transaction transaction : transactions) {
+            pool.add(pool.size(), transaction);
+        }
+
+        return pool;
+    }
+
+
+    private static void check(String name, List<Transaction> pool, Transaction... expected) {
+        List<Transaction> actual = new ArrayList<>(pool);
+        List<String> descriptions = new ArrayList<>();
+        for (Transaction transaction : actual) {
+            descriptions.add(transaction.getDescription() + " " + transaction.getAmount());
+        }
+
+        boolean same = actual.size() == expected.length;
+        for (int i = 0; same && i < expected.length; i++) {
+            same = actual.get(i).equals(expected[i]) && actual.get(i).getAmount() == expected[i].getAmount();
+        }
+
+        if (!same) {
+            report(name + ": the pool holds " + descriptions);
+        }
+    }
+
+
+    private static void expect(String name, Runnable action, Class<? extends RuntimeException> type) {
+        try {
+            action.run();
+            report(name + ": no " + type.getSimpleName() + " was thrown");
+        } catch (RuntimeException e) {
+            if (!type.isInstance(e)) {
+                report(name + ": " + e + " was thrown instead of " + type.getSimpleName());
+            }
+        }
+    }
+
+
+    private static void report(String failure) {
+        System.out.println(failure);
+        failures++;
+    }
+}
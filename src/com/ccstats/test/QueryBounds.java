@@ -0,0 +1,43 @@
+package com.ccstats.test;
+
+import com.ccstats.analysis.TransactionPool;
+import com.ccstats.data.Transaction;
+
+import java.time.LocalDate;
+
+
+public class QueryBounds {
+
+    private static final double[] BOUNDS = {Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1e300, -1e17,
+            -92233720368547758.08, -10, -0.015, 0, 0.01, 10, 92233720368547758.07, 1e17, 1e300, Double.MAX_VALUE, Double.POSITIVE_INFINITY,
+            Double.NaN};
+
+
+    public static void main(String[] args) {
+        TransactionPool pool = new TransactionPool();
+        long[] cents = {Long.MIN_VALUE, -100000, -1000, -1, 0, 1, 999, 1000, 100000, Long.MAX_VALUE};
+        for (int i = 0; i < cents.length; i++) {
+            pool.add(Transaction.ofCents("T" + i, LocalDate.of(2015, 12, 1 + i), cents[i], false));
+        }
+
+        // amountBetween must select what getTransactionsFrom(double, double) does, for every pair of bounds.
+        int failures = 0;
+        for (double least : BOUNDS) {
+            for (double highest : BOUNDS) {
+                long expected = pool.getTransactionsFrom(least, highest).size();
+                long actual = pool.query().amountBetween(least, highest).count();
+
+                if (actual != expected) {
+                    System.out.printf("amountBetween(%s, %s): %d transactions, expected %d\n", least, highest,
+                            actual, expected);
+                    failures++;
+                }
+            }
+        }
+
+        System.out.println(failures == 0 ? "All bounds match." : failures + " bounds differ.");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+}
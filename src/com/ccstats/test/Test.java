@@ -1,6 +1,8 @@
 package com.ccstats.test;
 
 import com.ccstats.analysis.TransactionPool;
+import com.ccstats.analysis.WindowStatistics;
+import com.ccstats.analysis.worker.ImportMark;
 import com.ccstats.analysis.worker.TransactionsExtractor;
 import com.ccstats.crypto.io.JSONEncryptedStatement;
 import com.ccstats.data.Statement;
@@ -13,6 +15,8 @@ import javax.crypto.BadPaddingException;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 
 public class Test {
@@ -35,7 +39,7 @@ public class Test {
         };
 
         statistics(args[0], billingDates, args[1]);
-        //merge(args[0],"/home/asakr/Downloads/9787-statement.html", "Dec 16, 2017", "Jan 13, 2018", args[1]);
+        //merge(args[0],"/home/asakr/Downloads/9787-statement.html", args[1]);
 
     }
     public static void statistics(String statement, String[][] weeks, String password) {
@@ -43,15 +47,21 @@ public class Test {
             JSONEncryptedStatement io = new JSONEncryptedStatement();
             Statement master = io.read(statement, password);
 
-            TransactionPool credit = master.getCreditTransactions();
-            TransactionPool transactions;
+            DateTimeFormatter format = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+            List<LocalDate[]> windows = new ArrayList<>();
             for (String[] week : weeks) {
-                System.out.printf("Transactions statistics for %s -> %s:\n---\n", week[0], week[1]);
-                transactions = credit.getTransactionsFrom(week[0], week[1]);
+                windows.add(new LocalDate[]{LocalDate.parse(week[0], format), LocalDate.parse(week[1], format)});
+            }
+
+            TransactionPool credit = master.getCreditTransactions();
+            List<WindowStatistics> statistics = credit.getStatistics(windows);
+            for (int i = 0; i < weeks.length; i++) {
+                WindowStatistics transactions = statistics.get(i);
+                System.out.printf("Transactions statistics for %s -> %s:\n---\n", weeks[i][0], weeks[i][1]);
                 System.out.printf("Balance: $%.2f\n", transactions.getBalance());
                 System.out.printf("Average / Day: $%.2f\n", transactions.getAverageDay());
                 System.out.printf("Standard Deviation: +/- $%.2f\n", transactions.getStandardDeviation());
-                System.out.printf("# of transactions: %d\n---\n", transactions.size());
+                System.out.printf("# of transactions: %d\n---\n", transactions.getCount());
             }
 
             System.out.println("Total spent since september: " + credit.getBalance());
@@ -61,14 +71,16 @@ public class Test {
 
     }
 
-    public static void merge(String master, String child, String from, String to, String password) {
+    public static void merge(String master, String child, String password) {
         try {
             JSONEncryptedStatement io = new JSONEncryptedStatement();
             Statement masterStatement = io.read(master, password);
 
             TransactionsExtractor extractor = new TransactionsExtractor(new CreditStatement(child));
-            Statement childStatement = new Statement(new Statement(extractor.read()).getCreditTransactions().getTransactionsFrom(from, to));
-            masterStatement.merge(childStatement);
+            extractor.setImportMark(ImportMark.of(masterStatement));
+            Statement childStatement = new Statement(new Statement(extractor.read()).getCreditTransactions());
+            // the import mark already skipped the rows the master holds, repeat purchases on its day included.
+            System.out.println("Merged: " + masterStatement.merge(childStatement, false));
 
             io.setStatement(masterStatement);
             io.write(master, password);